@@ -0,0 +1,126 @@
+package dev.danae.common.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import dev.danae.common.commands.arguments.ArgumentException;
+import dev.danae.common.commands.arguments.ArgumentType;
+import dev.danae.common.commands.arguments.DoubleArgumentType;
+import dev.danae.common.commands.arguments.IntArgumentType;
+import dev.danae.common.commands.arguments.LocationArgumentTypeBuilder;
+import dev.danae.common.commands.arguments.Scanner;
+import org.bukkit.Location;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArgumentParsingBenchmark
+{
+  // The argument types of the benchmark
+  private ArgumentType<Integer> intArgumentType;
+  private ArgumentType<Double> doubleArgumentType;
+  private IntArgumentType primitiveIntArgumentType;
+  private DoubleArgumentType primitiveDoubleArgumentType;
+  private LocationArgumentTypeBuilder locationArgumentTypeBuilder;
+
+  // The origin for parsing locations
+  private Location origin;
+
+  // The arguments of the benchmark
+  private final String[] intArguments = { "-123456" };
+  private final String[] doubleArguments = { "-1234.5678" };
+  private final String[] absoluteLocationArguments = { "120", "64", "-250" };
+  private final String[] relativeLocationArguments = { "~", "~1", "~-2" };
+  private final String absoluteLocationLine = "120 64 -250";
+  private final String[] invalidIntArguments = { "12a" };
+
+
+  // Set up the benchmark
+  @Setup
+  public void setup()
+  {
+    this.intArgumentType = ArgumentType.getIntArgumentType(Stream.empty());
+    this.doubleArgumentType = ArgumentType.getDoubleArgumentType(Stream.empty());
+    this.primitiveIntArgumentType = ArgumentType.getIntArgumentType(Integer.MIN_VALUE, Integer.MAX_VALUE, Stream.empty());
+    this.primitiveDoubleArgumentType = ArgumentType.getDoubleArgumentType(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, Stream.empty());
+    this.locationArgumentTypeBuilder = ArgumentType.getLocationArgumentTypeBuilder();
+    this.origin = StandIns.location(StandIns.world("world"), 10, 64, -20);
+  }
+
+
+  // Benchmark parsing an int
+  @Benchmark
+  public Integer parseInt() throws ArgumentException
+  {
+    return this.intArgumentType.parse(new Scanner(this.intArguments));
+  }
+
+  // Benchmark parsing a primitive int
+  @Benchmark
+  public int parsePrimitiveInt() throws ArgumentException
+  {
+    return this.primitiveIntArgumentType.parseInt(new Scanner(this.intArguments));
+  }
+
+  // Benchmark parsing an invalid int, falling back to a default value
+  @Benchmark
+  public Integer parseInvalidIntWithDefault() throws ArgumentException
+  {
+    return this.intArgumentType.parse(new Scanner(this.invalidIntArguments), 0);
+  }
+
+  // Benchmark trying to parse an invalid primitive int without throwing
+  @Benchmark
+  public boolean tryParseInvalidPrimitiveInt()
+  {
+    return this.primitiveIntArgumentType.tryParse(new Scanner(this.invalidIntArguments)).isSuccess();
+  }
+
+  // Benchmark parsing a double
+  @Benchmark
+  public Double parseDouble() throws ArgumentException
+  {
+    return this.doubleArgumentType.parse(new Scanner(this.doubleArguments));
+  }
+
+  // Benchmark parsing a primitive double
+  @Benchmark
+  public double parsePrimitiveDouble() throws ArgumentException
+  {
+    return this.primitiveDoubleArgumentType.parseDouble(new Scanner(this.doubleArguments));
+  }
+
+  // Benchmark building a location argument type and parsing an absolute location
+  @Benchmark
+  public Location parseAbsoluteLocation() throws ArgumentException
+  {
+    return this.locationArgumentTypeBuilder.build(this.origin).parse(new Scanner(this.absoluteLocationArguments));
+  }
+
+  // Benchmark building a location argument type and parsing a relative location
+  @Benchmark
+  public Location parseRelativeLocation() throws ArgumentException
+  {
+    return this.locationArgumentTypeBuilder.build(this.origin).parse(new Scanner(this.relativeLocationArguments));
+  }
+
+  // Benchmark building a location argument type and parsing an absolute location from a raw line
+  @Benchmark
+  public Location parseAbsoluteLocationFromLine() throws ArgumentException
+  {
+    return this.locationArgumentTypeBuilder.build(this.origin).parse(new Scanner(this.absoluteLocationLine));
+  }
+}
@@ -0,0 +1,23 @@
+package dev.danae.common.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+public final class BenchmarkRunner
+{
+  // Run the benchmarks with the GC profiler to report allocation rates, accepting the regular JMH command line options
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException
+  {
+    var options = new OptionsBuilder()
+      .parent(new CommandLineOptions(args))
+      .addProfiler(GCProfiler.class)
+      .build();
+
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,117 @@
+package dev.danae.common.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import dev.danae.common.commands.Command;
+import dev.danae.common.commands.CommandContext;
+import dev.danae.common.commands.CommandGroup;
+import org.bukkit.command.CommandSender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark
+{
+  // The number of subcommands in each group and the depth of the groups
+  private static final int WIDTH = 60;
+  private static final int DEPTH = 3;
+
+
+  // Class that defines a command that consumes its context
+  private static final class LeafCommand extends Command
+  {
+    // The total number of handled arguments, which keeps the handler from being optimized away
+    private long handledArgumentsCount = 0;
+
+    @Override
+    public void handle(CommandContext context)
+    {
+      this.handledArgumentsCount += context.getArgumentsCount();
+    }
+
+    @Override
+    public Stream<String> suggest(CommandContext context)
+    {
+      return Stream.of("alpha", "beta", "gamma");
+    }
+  }
+
+
+  // The root command of the benchmark
+  private CommandGroup root;
+
+  // The leaf command of the benchmark
+  private final LeafCommand leaf = new LeafCommand();
+
+  // The stand-in sender and Bukkit command
+  private CommandSender sender;
+  private org.bukkit.command.Command bukkitCommand;
+
+  // The arguments for dispatching and suggesting
+  private final String[] dispatchArguments = { "group37", "group12", "sub59", "1", "2", "3" };
+  private final String[] suggestArguments = { "group37", "group12", "sub5" };
+
+
+  // Set up the benchmark
+  @Setup
+  public void setup()
+  {
+    this.root = createGroup(DEPTH - 1, this.leaf);
+    this.root.compile();
+
+    this.sender = StandIns.player("Benchmarker");
+    this.bukkitCommand = new org.bukkit.command.Command("bench")
+    {
+      @Override
+      public boolean execute(CommandSender sender, String label, String[] args)
+      {
+        return false;
+      }
+    };
+  }
+
+
+  // Benchmark dispatching a command through nested groups
+  @Benchmark
+  public boolean dispatch()
+  {
+    return this.root.onCommand(this.sender, this.bukkitCommand, "bench", this.dispatchArguments);
+  }
+
+  // Benchmark suggesting a subcommand name in a nested group
+  @Benchmark
+  public List<String> suggestSubcommand()
+  {
+    return this.root.onTabComplete(this.sender, this.bukkitCommand, "bench", this.suggestArguments);
+  }
+
+
+  // Create a group with the specified remaining depth
+  private static CommandGroup createGroup(int depth, Command leaf)
+  {
+    var group = new CommandGroup();
+    for (var i = 0; i < WIDTH; i ++)
+    {
+      if (depth > 0)
+        group.registerSubcommand(String.format("group%d", i), createGroup(depth - 1, leaf));
+      else
+        group.registerSubcommand(String.format("sub%d", i), leaf);
+    }
+    return group;
+  }
+}
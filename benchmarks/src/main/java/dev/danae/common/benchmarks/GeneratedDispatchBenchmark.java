@@ -0,0 +1,135 @@
+package dev.danae.common.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import dev.danae.common.commands.CommandContext;
+import dev.danae.common.commands.CommandException;
+import dev.danae.common.commands.arguments.ArgumentType;
+import dev.danae.common.commands.arguments.IntArgumentType;
+import dev.danae.common.commands.annotations.Argument;
+import dev.danae.common.commands.annotations.CommandHandler;
+import dev.danae.common.commands.annotations.Subcommand;
+import org.bukkit.GameMode;
+import org.bukkit.command.CommandSender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneratedDispatchBenchmark
+{
+  // Class that defines the handlers of the generated command group, which is compiled by the annotation processor as part of the build
+  @CommandHandler(uniquePrefixResolution = true)
+  public static final class Handlers
+  {
+    // The argument type for amounts
+    final IntArgumentType amountArgumentType = ArgumentType.getIntArgumentType(1, 64, Stream.of(1, 16, 32, 64));
+
+    // The total of the handled values, which keeps the handlers from being optimized away
+    private double total = 0.0;
+
+
+    // Handle moving by a block offset
+    @Subcommand("move")
+    void move(int x, int y, int z)
+    {
+      this.total += x + y + z;
+    }
+
+    // Handle scaling by a factor
+    @Subcommand("scale")
+    void scale(CommandContext context, double factor, @Argument("amountArgumentType") int amount)
+    {
+      this.total += factor * amount;
+    }
+
+    // Handle naming with a game mode
+    @Subcommand("name")
+    void name(String name, GameMode gameMode)
+    {
+      this.total += name.length() + gameMode.ordinal();
+    }
+
+    // Handle repeating a count that depends on the sender
+    @Subcommand("repeat")
+    void repeat(@Argument("countArgumentType") int count) throws CommandException
+    {
+      this.total += count;
+    }
+
+
+    // Return the argument type for counts, which depends on the command context
+    IntArgumentType countArgumentType(CommandContext context) throws CommandException
+    {
+      return ArgumentType.getIntArgumentType(0, context.getSender().hasPermission("bench.repeat.many") ? 1000 : 10, Stream.empty());
+    }
+  }
+
+
+  // The generated root command of the benchmark
+  private GeneratedDispatchBenchmarkHandlersCommandGroup root;
+
+  // The stand-in sender and Bukkit command
+  private CommandSender sender;
+  private org.bukkit.command.Command bukkitCommand;
+
+  // The arguments for dispatching and suggesting
+  private final String[] moveArguments = { "move", "12", "-64", "300" };
+  private final String[] scaleArguments = { "sc", "0.75", "32" };
+  private final String[] suggestArguments = { "scale", "0.75", "" };
+
+
+  // Set up the benchmark
+  @Setup
+  public void setup()
+  {
+    this.root = new GeneratedDispatchBenchmarkHandlersCommandGroup(new Handlers());
+    this.root.compile();
+
+    this.sender = StandIns.player("Benchmarker");
+    this.bukkitCommand = new org.bukkit.command.Command("bench")
+    {
+      @Override
+      public boolean execute(CommandSender sender, String label, String[] args)
+      {
+        return false;
+      }
+    };
+  }
+
+
+  // Benchmark dispatching a generated command with primitive arguments
+  @Benchmark
+  public boolean dispatchMove()
+  {
+    return this.root.onCommand(this.sender, this.bukkitCommand, "bench", this.moveArguments);
+  }
+
+  // Benchmark dispatching a generated command by a unique prefix with a custom argument type
+  @Benchmark
+  public boolean dispatchScale()
+  {
+    return this.root.onCommand(this.sender, this.bukkitCommand, "bench", this.scaleArguments);
+  }
+
+  // Benchmark suggesting the last argument of a generated command
+  @Benchmark
+  public List<String> suggestScale()
+  {
+    return this.root.onTabComplete(this.sender, this.bukkitCommand, "bench", this.suggestArguments);
+  }
+}
@@ -0,0 +1,88 @@
+package dev.danae.common.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+
+public final class StandIns
+{
+  // Create a stand-in of the specified interface with the specified name that returns default values
+  @SuppressWarnings("unchecked")
+  public static <T> T create(Class<T> type, String name)
+  {
+    var uuid = UUID.nameUUIDFromBytes(name.getBytes());
+    return (T)Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+      return switch (method.getName())
+      {
+        case "getName" -> name;
+        case "getUniqueId", "getUID" -> uuid;
+        case "hasPermission", "isOp", "isOnline" -> true;
+        case "equals" -> proxy == args[0];
+        case "hashCode" -> System.identityHashCode(proxy);
+        case "toString" -> String.format("%s[%s]", type.getSimpleName(), name);
+        default -> defaultValue(method.getReturnType());
+      };
+    });
+  }
+
+  // Create a stand-in command sender
+  public static CommandSender sender(String name)
+  {
+    return create(CommandSender.class, name);
+  }
+
+  // Create a stand-in player
+  public static Player player(String name)
+  {
+    return create(Player.class, name);
+  }
+
+  // Create a stand-in world
+  public static World world(String name)
+  {
+    return create(World.class, name);
+  }
+
+  // Create a location in a stand-in world
+  public static Location location(World world, int x, int y, int z)
+  {
+    return new Location(world, x, y, z);
+  }
+
+
+  // Return the default value for the specified return type
+  private static Object defaultValue(Class<?> type)
+  {
+    if (type == boolean.class)
+      return false;
+    if (type == int.class)
+      return 0;
+    if (type == long.class)
+      return 0L;
+    if (type == double.class)
+      return 0.0;
+    if (type == float.class)
+      return 0.0f;
+    if (type == short.class)
+      return (short)0;
+    if (type == byte.class)
+      return (byte)0;
+    if (type == char.class)
+      return '\0';
+    if (type == List.class)
+      return Collections.emptyList();
+    if (type == Set.class)
+      return Collections.emptySet();
+    if (type == Map.class)
+      return Collections.emptyMap();
+    return null;
+  }
+}
@@ -0,0 +1,95 @@
+package dev.danae.common.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import dev.danae.common.commands.Suggestion;
+import dev.danae.common.commands.SuggestionIndex;
+import dev.danae.common.commands.arguments.ArgumentType;
+import dev.danae.common.commands.arguments.MaterialFilter;
+import dev.danae.common.commands.arguments.StringArgumentType;
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SuggestionBenchmark
+{
+  // The prefix that is being typed
+  @Param({ "", "s", "st", "oak_", "diamond_b", "_ore" })
+  private String prefix;
+
+
+  // The argument types of the benchmark
+  private StringArgumentType<Material> enumArgumentType;
+  private StringArgumentType<Material> materialArgumentType;
+
+  // The material names and their suggestion index
+  private List<String> materialNames;
+  private SuggestionIndex materialIndex;
+
+
+  // Set up the benchmark
+  @Setup
+  public void setup()
+  {
+    this.enumArgumentType = ArgumentType.getEnumArgumentType(Material.class);
+    this.materialArgumentType = ArgumentType.getMaterialArgumentType(MaterialFilter.ALL);
+
+    this.materialNames = Arrays.stream(Material.values())
+      .map(material -> material.name().toLowerCase())
+      .toList();
+    this.materialIndex = SuggestionIndex.of(this.materialNames);
+  }
+
+
+  // Benchmark suggesting enum constants
+  @Benchmark
+  public List<String> suggestEnum()
+  {
+    return this.enumArgumentType.suggestFromString(this.prefix).toList();
+  }
+
+  // Benchmark suggesting materials
+  @Benchmark
+  public List<String> suggestMaterial()
+  {
+    return this.materialArgumentType.suggestFromString(this.prefix).toList();
+  }
+
+  // Benchmark finding material names with a linear scan and sort
+  @Benchmark
+  public List<String> findLinear()
+  {
+    return Suggestion.find(this.prefix, this.materialNames.stream()).toList();
+  }
+
+  // Benchmark finding the best 20 material names with a bounded heap
+  @Benchmark
+  public List<String> findLimited()
+  {
+    return Suggestion.findLimited(this.prefix, this.materialNames.stream(), 20).getSuggestions();
+  }
+
+  // Benchmark finding material names in a suggestion index
+  @Benchmark
+  public List<String> findIndexed()
+  {
+    return this.materialIndex.findList(this.prefix);
+  }
+}
@@ -0,0 +1,287 @@
+package dev.danae.common.processor;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import dev.danae.common.processor.ParameterModel.Scope;
+
+
+final class CommandGroupWriter
+{
+  // The qualified names of the library types that are referenced by the generated code
+  private static final String COMMAND = "dev.danae.common.commands.Command";
+  private static final String COMMAND_GROUP = "dev.danae.common.commands.CommandGroup";
+  private static final String COMMAND_CONTEXT = CommandProcessor.COMMAND_CONTEXT;
+  private static final String COMMAND_EXCEPTION = CommandProcessor.COMMAND_EXCEPTION;
+  private static final String COMMAND_USAGE_EXCEPTION = CommandProcessor.COMMAND_USAGE_EXCEPTION;
+  private static final String STREAM = "java.util.stream.Stream";
+
+
+  // The package of the generated command group
+  private final String packageName;
+
+  // The simple name of the generated command group
+  private final String className;
+
+  // The qualified name of the command handler class
+  private final String handlerName;
+
+  // The required permissions to execute the command group
+  private final List<String> permissions;
+
+  // Indicates if subcommands can be resolved by a unique prefix of their name
+  private final boolean uniquePrefixResolution;
+
+  // The subcommands of the command group
+  private final List<SubcommandModel> subcommands;
+
+  // The builder for the generated source
+  private final StringBuilder source = new StringBuilder();
+
+
+  // Constructor
+  public CommandGroupWriter(String packageName, String className, String handlerName, List<String> permissions, boolean uniquePrefixResolution, List<SubcommandModel> subcommands)
+  {
+    this.packageName = packageName;
+    this.className = className;
+    this.handlerName = handlerName;
+    this.permissions = List.copyOf(permissions);
+    this.uniquePrefixResolution = uniquePrefixResolution;
+    this.subcommands = List.copyOf(subcommands);
+  }
+
+
+  // Write the generated command group to the specified filer
+  public void write(Filer filer, Element originatingElement) throws IOException
+  {
+    var qualifiedName = this.packageName.isEmpty() ? this.className : this.packageName + "." + this.className;
+    var file = filer.createSourceFile(qualifiedName, originatingElement);
+    try (var writer = file.openWriter())
+    {
+      writer.write(this.generate());
+    }
+  }
+
+  // Return the generated source of the command group
+  public String generate()
+  {
+    this.source.setLength(0);
+
+    if (!this.packageName.isEmpty())
+      this.line(0, "package %s;", this.packageName).line(0, "").line(0, "");
+
+    this.line(0, "@javax.annotation.processing.Generated(\"%s\")", CommandProcessor.class.getName());
+    this.line(0, "public final class %s extends %s", this.className, COMMAND_GROUP);
+    this.line(0, "{");
+    for (var subcommand : this.subcommands)
+      this.writeSubcommand(subcommand);
+
+    // Write the constructor that registers the subcommands
+    this.line(1, "// Constructor");
+    this.line(1, "public %s(%s handlers)", this.className, this.handlerName);
+    this.line(1, "{");
+    this.line(2, "super(%s);", this.literals(this.permissions));
+    if (this.uniquePrefixResolution)
+      this.line(2, "this.setUniquePrefixResolution(true);");
+    for (var subcommand : this.subcommands)
+    {
+      if (subcommand.getName().isEmpty())
+        this.line(2, "this.registerEmptySubcommand(new %s(handlers));", subcommand.getClassName());
+      else
+        this.line(2, "this.registerSubcommand(%s, new %s(handlers));", this.literal(subcommand.getName()), subcommand.getClassName());
+    }
+    this.line(1, "}");
+    this.line(0, "}");
+
+    return this.source.toString();
+  }
+
+
+  // Write the generated command class for the specified subcommand
+  private void writeSubcommand(SubcommandModel subcommand)
+  {
+    var arguments = subcommand.getArgumentParameters();
+
+    this.line(1, "// Generated command for the %s subcommand", subcommand.getName().isEmpty() ? "empty" : subcommand.getName());
+    this.line(1, "private static final class %s extends %s", subcommand.getClassName(), COMMAND);
+    this.line(1, "{");
+
+    // Write the fields
+    if (arguments.stream().anyMatch(parameter -> parameter.getScope() == Scope.STATIC || parameter.getScope() == Scope.INSTANCE))
+    {
+      this.line(2, "// The argument types of the parameters");
+      for (var parameter : arguments)
+      {
+        if (parameter.getScope() == Scope.STATIC)
+          this.line(2, "private static final %s %s = %s;", parameter.getArgumentTypeName(), parameter.getArgumentTypeReference(), parameter.getArgumentTypeExpression());
+        else if (parameter.getScope() == Scope.INSTANCE)
+          this.line(2, "private final %s argumentType%d;", parameter.getArgumentTypeName(), parameter.getIndex());
+      }
+      this.line(0, "");
+    }
+    this.line(2, "// The instance that handles the subcommand");
+    this.line(2, "private final %s handlers;", this.handlerName);
+    this.line(0, "").line(0, "");
+
+    // Write the constructor
+    this.line(2, "// Constructor");
+    this.line(2, "private %s(%s handlers)", subcommand.getClassName(), this.handlerName);
+    this.line(2, "{");
+    this.line(3, "super(%s);", this.literals(subcommand.getPermissions()));
+    this.line(3, "this.handlers = handlers;");
+    for (var parameter : arguments)
+    {
+      if (parameter.getScope() == Scope.INSTANCE)
+        this.line(3, "%s = %s;", parameter.getArgumentTypeReference(), parameter.getArgumentTypeExpression());
+    }
+    this.line(2, "}");
+    this.line(0, "").line(0, "");
+
+    // Write the asynchronous flag
+    if (subcommand.isAsync())
+    {
+      this.line(2, "// Return if this command is handled asynchronously from the main thread");
+      this.line(2, "@Override");
+      this.line(2, "public boolean isAsynchronous()");
+      this.line(2, "{");
+      this.line(3, "return true;");
+      this.line(2, "}");
+      this.line(0, "");
+    }
+
+    // Write the handler, which parses the parameters in order and rejects trailing arguments
+    this.line(2, "// Handle the command");
+    this.line(2, "@Override");
+    this.line(2, "public void handle(%s context) throws %s, %s", COMMAND_CONTEXT, COMMAND_EXCEPTION, COMMAND_USAGE_EXCEPTION);
+    this.line(2, "{");
+    this.writeCallScopedArgumentTypes(arguments, null);
+    this.line(3, "var scanner = context.getArgumentsScanner();");
+    for (var parameter : arguments)
+      this.line(3, "var %s = %s;", parameter.getVariable(), parameter.getParseExpression());
+    this.line(3, "if (!scanner.isAtEnd())");
+    this.line(4, "throw new %s();", COMMAND_USAGE_EXCEPTION);
+    this.line(0, "");
+    this.line(3, "%s.%s(%s);", subcommand.isStatic() ? this.handlerName : "this.handlers", subcommand.getMethodName(),
+      subcommand.getParameters().stream().map(parameter -> parameter.getVariable()).collect(Collectors.joining(", ")));
+    this.line(2, "}");
+    this.line(0, "");
+
+    // Write the suggestions, which are provided by the parameter that contains the last argument
+    this.line(2, "// Return suggestions for the specified command context");
+    this.line(2, "@Override");
+    this.line(2, "public %s<String> suggest(%s context)", STREAM, COMMAND_CONTEXT);
+    this.line(2, "{");
+    if (!arguments.isEmpty())
+    {
+      this.writeCallScopedArgumentTypes(arguments, STREAM + ".empty()");
+      this.line(3, "var scanner = context.getArgumentsScanner();");
+      this.line(3, "var start = scanner.mark();");
+      this.line(3, "var count = context.getArgumentsCount();");
+      for (var parameter : arguments)
+      {
+        var index = parameter.getIndex();
+        var type = parameter.getArgumentTypeReference();
+        this.line(0, "");
+        this.line(3, "var index%d = scanner.mark() - start;", index);
+        this.line(3, "var parsed%d = scanner.tryParse(%s).isSuccess();", index, type);
+        this.line(3, "if (index%1$d >= count - 1 || (parsed%1$d && scanner.isAtEnd()))", index);
+        this.line(4, "return %s.suggest(context, index%d);", type, index);
+        this.line(3, "if (!parsed%d)", index);
+        this.line(4, "return %s.empty();", STREAM);
+      }
+      this.line(0, "");
+    }
+    this.line(3, "return %s.empty();", STREAM);
+    this.line(2, "}");
+
+    // Write if suggestions must be computed on the main thread
+    if (!arguments.isEmpty())
+    {
+      this.line(0, "");
+      this.line(2, "// Return if suggestions for the specified command context must be computed on the main thread");
+      this.line(2, "@Override");
+      this.line(2, "public boolean requiresMainThreadToSuggest(%s context)", COMMAND_CONTEXT);
+      this.line(2, "{");
+      this.writeCallScopedArgumentTypes(arguments, "false");
+      this.line(3, "return %s;", arguments.stream()
+        .map(parameter -> parameter.getArgumentTypeReference() + ".requiresMainThread()")
+        .collect(Collectors.joining(" || ")));
+      this.line(2, "}");
+    }
+
+    this.line(1, "}");
+    this.line(0, "").line(0, "");
+  }
+
+  // Write the local variables for the argument types that are created for every call, returning the specified fallback value if creating one throws, or propagating the exception if there is no fallback value
+  private void writeCallScopedArgumentTypes(List<ParameterModel> arguments, String fallback)
+  {
+    var written = false;
+    for (var parameter : arguments)
+    {
+      if (parameter.getScope() != Scope.CALL)
+        continue;
+
+      if (fallback != null && parameter.isThrowing())
+      {
+        this.line(3, "%s %s;", parameter.getArgumentTypeName(), parameter.getArgumentTypeReference());
+        this.line(3, "try");
+        this.line(3, "{");
+        this.line(4, "%s = %s;", parameter.getArgumentTypeReference(), parameter.getArgumentTypeExpression());
+        this.line(3, "}");
+        this.line(3, "catch (%s ex)", COMMAND_EXCEPTION);
+        this.line(3, "{");
+        this.line(4, "return %s;", fallback);
+        this.line(3, "}");
+      }
+      else
+      {
+        this.line(3, "var %s = %s;", parameter.getArgumentTypeReference(), parameter.getArgumentTypeExpression());
+      }
+      written = true;
+    }
+    if (written)
+      this.line(0, "");
+  }
+
+
+  // Append a formatted line with the specified indentation level to the source
+  private CommandGroupWriter line(int indent, String format, Object... args)
+  {
+    var text = String.format(format, args);
+    if (!text.isEmpty())
+      this.source.append("  ".repeat(indent)).append(text);
+    this.source.append('\n');
+    return this;
+  }
+
+  // Return the specified strings as comma-separated Java string literals
+  private String literals(List<String> strings)
+  {
+    return strings.stream()
+      .map(string -> this.literal(string))
+      .collect(Collectors.joining(", "));
+  }
+
+  // Return the specified string as a Java string literal
+  private String literal(String string)
+  {
+    var builder = new StringBuilder("\"");
+    for (var i = 0; i < string.length(); i ++)
+    {
+      var c = string.charAt(i);
+      switch (c)
+      {
+        case '"' -> builder.append("\\\"");
+        case '\\' -> builder.append("\\\\");
+        case '\n' -> builder.append("\\n");
+        case '\r' -> builder.append("\\r");
+        case '\t' -> builder.append("\\t");
+        default -> builder.append(c);
+      }
+    }
+    return builder.append('"').toString();
+  }
+}
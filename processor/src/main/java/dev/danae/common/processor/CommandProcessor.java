@@ -0,0 +1,326 @@
+package dev.danae.common.processor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import dev.danae.common.processor.ParameterModel.Kind;
+import dev.danae.common.processor.ParameterModel.Scope;
+
+
+@SupportedAnnotationTypes(CommandProcessor.COMMAND_HANDLER)
+public final class CommandProcessor extends AbstractProcessor
+{
+  // The qualified names of the annotations
+  static final String COMMAND_HANDLER = "dev.danae.common.commands.annotations.CommandHandler";
+  static final String SUBCOMMAND = "dev.danae.common.commands.annotations.Subcommand";
+  static final String ARGUMENT = "dev.danae.common.commands.annotations.Argument";
+
+  // The qualified names of the library types
+  static final String COMMAND_CONTEXT = "dev.danae.common.commands.CommandContext";
+  static final String COMMAND_EXCEPTION = "dev.danae.common.commands.CommandException";
+  static final String COMMAND_USAGE_EXCEPTION = "dev.danae.common.commands.CommandUsageException";
+  static final String SUGGESTION_SOURCE = "dev.danae.common.commands.SuggestionSource";
+  static final String ARGUMENT_TYPE = "dev.danae.common.commands.arguments.ArgumentType";
+  static final String INT_ARGUMENT_TYPE = "dev.danae.common.commands.arguments.IntArgumentType";
+  static final String LONG_ARGUMENT_TYPE = "dev.danae.common.commands.arguments.LongArgumentType";
+  static final String DOUBLE_ARGUMENT_TYPE = "dev.danae.common.commands.arguments.DoubleArgumentType";
+  static final String MATERIAL_FILTER = "dev.danae.common.commands.arguments.MaterialFilter";
+
+  // The suffix of the names of the generated command groups
+  static final String COMMAND_GROUP_SUFFIX = "CommandGroup";
+
+
+  // Return the latest supported source version
+  @Override
+  public SourceVersion getSupportedSourceVersion()
+  {
+    return SourceVersion.latestSupported();
+  }
+
+  // Process the command handler classes of a round
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+  {
+    var commandHandler = this.processingEnv.getElementUtils().getTypeElement(COMMAND_HANDLER);
+    if (commandHandler == null)
+      return false;
+
+    for (var element : roundEnv.getElementsAnnotatedWith(commandHandler))
+    {
+      try
+      {
+        this.process(element);
+      }
+      catch (ProcessingException ex)
+      {
+        this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, ex.getMessage(), ex.getElement());
+      }
+      catch (IOException ex)
+      {
+        this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, String.format("Could not write the command group: %s", ex.getMessage()), element);
+      }
+    }
+    return true;
+  }
+
+
+  // Generate the command group for the specified command handler class
+  private void process(Element element) throws ProcessingException, IOException
+  {
+    if (element.getKind() != ElementKind.CLASS)
+      throw new ProcessingException(element, "@CommandHandler can only be applied to classes");
+    if (element.getModifiers().contains(Modifier.PRIVATE))
+      throw new ProcessingException(element, "A command handler class must not be private");
+    if (element.getEnclosingElement() instanceof TypeElement && !element.getModifiers().contains(Modifier.STATIC))
+      throw new ProcessingException(element, "A nested command handler class must be static");
+
+    var handler = (TypeElement)element;
+    var annotation = this.getAnnotation(handler, COMMAND_HANDLER);
+
+    // Create the subcommands
+    var subcommands = new ArrayList<SubcommandModel>();
+    var subcommandNames = new HashSet<String>();
+    var classNames = new HashSet<String>();
+    for (var method : ElementFilter.methodsIn(handler.getEnclosedElements()))
+    {
+      var subcommand = this.getAnnotation(method, SUBCOMMAND);
+      if (subcommand == null)
+        continue;
+
+      var name = (String)this.getValue(subcommand, "value");
+      if (!subcommandNames.add(name))
+        throw new ProcessingException(method, String.format("Duplicate subcommand \"%s\"", name));
+
+      subcommands.add(this.createSubcommand(handler, method, subcommand, name, classNames));
+    }
+    if (subcommands.isEmpty())
+      throw new ProcessingException(handler, "A command handler class must have at least one @Subcommand method");
+
+    // Write the command group
+    var packageName = this.processingEnv.getElementUtils().getPackageOf(handler).getQualifiedName().toString();
+    var writer = new CommandGroupWriter(packageName, this.getFlattenedName(handler) + COMMAND_GROUP_SUFFIX, handler.getQualifiedName().toString(),
+      this.getStrings(annotation, "permissions"), (Boolean)this.getValue(annotation, "uniquePrefixResolution"), subcommands);
+    writer.write(this.processingEnv.getFiler(), handler);
+  }
+
+  // Create a subcommand for the specified method
+  private SubcommandModel createSubcommand(TypeElement handler, ExecutableElement method, AnnotationMirror annotation, String name, Set<String> classNames) throws ProcessingException
+  {
+    if (method.getModifiers().contains(Modifier.PRIVATE))
+      throw new ProcessingException(method, "A subcommand method must not be private");
+
+    // Check the thrown types of the method
+    for (var thrownType : method.getThrownTypes())
+    {
+      if (!this.isSubtype(thrownType, COMMAND_EXCEPTION) && !this.isSubtype(thrownType, COMMAND_USAGE_EXCEPTION) && !this.isSubtype(thrownType, RuntimeException.class.getName()) && !this.isSubtype(thrownType, Error.class.getName()))
+        throw new ProcessingException(method, String.format("A subcommand method can only throw CommandException or CommandUsageException, not %s", thrownType));
+    }
+
+    // Create the parameters of the method
+    var parameters = new ArrayList<ParameterModel>();
+    var methodParameters = method.getParameters();
+    for (var i = 0; i < methodParameters.size(); i ++)
+      parameters.add(this.createParameter(handler, methodParameters.get(i), i));
+
+    // Create a unique name for the generated command class
+    var baseClassName = Character.toUpperCase(method.getSimpleName().charAt(0)) + method.getSimpleName().toString().substring(1) + "Subcommand";
+    var className = baseClassName;
+    for (var i = 2; !classNames.add(className); i ++)
+      className = baseClassName + i;
+
+    return new SubcommandModel(name, className, method.getSimpleName().toString(), method.getModifiers().contains(Modifier.STATIC),
+      this.getStrings(annotation, "permissions"), (Boolean)this.getValue(annotation, "async"), parameters);
+  }
+
+  // Create a parameter for the specified method parameter
+  private ParameterModel createParameter(TypeElement handler, VariableElement parameter, int index) throws ProcessingException
+  {
+    var type = parameter.asType();
+
+    // Check for an argument type provided by a member of the handler
+    var argument = this.getAnnotation(parameter, ARGUMENT);
+    if (argument != null)
+      return this.createMemberParameter(handler, parameter, index, (String)this.getValue(argument, "value"));
+
+    // Check for the command context
+    if (this.isType(type, COMMAND_CONTEXT))
+      return ParameterModel.ofContext(index);
+
+    // Check for a built-in argument type
+    var emptySuggestions = SUGGESTION_SOURCE + ".empty()";
+    return switch (type.getKind())
+    {
+      case INT -> ParameterModel.ofArgument(index, Kind.INT, Scope.STATIC, INT_ARGUMENT_TYPE,
+        String.format("%s.getIntArgumentType(Integer.MIN_VALUE, Integer.MAX_VALUE, %s)", ARGUMENT_TYPE, emptySuggestions));
+      case LONG -> ParameterModel.ofArgument(index, Kind.LONG, Scope.STATIC, LONG_ARGUMENT_TYPE,
+        String.format("%s.getLongArgumentType(Long.MIN_VALUE, Long.MAX_VALUE, %s)", ARGUMENT_TYPE, emptySuggestions));
+      case DOUBLE -> ParameterModel.ofArgument(index, Kind.DOUBLE, Scope.STATIC, DOUBLE_ARGUMENT_TYPE,
+        String.format("%s.getDoubleArgumentType(-Double.MAX_VALUE, Double.MAX_VALUE, %s)", ARGUMENT_TYPE, emptySuggestions));
+      case DECLARED -> this.createDeclaredParameter(parameter, index, (DeclaredType)type, emptySuggestions);
+      default -> throw new ProcessingException(parameter, String.format("Parameter %s of type %s needs an @Argument annotation", parameter.getSimpleName(), type));
+    };
+  }
+
+  // Create a parameter with a built-in argument type for the specified declared type
+  private ParameterModel createDeclaredParameter(VariableElement parameter, int index, DeclaredType type, String emptySuggestions) throws ProcessingException
+  {
+    var element = (TypeElement)type.asElement();
+    var argumentTypeName = String.format("%s<%s>", ARGUMENT_TYPE, type);
+
+    if (element.getKind() == ElementKind.ENUM)
+      return ParameterModel.ofArgument(index, Kind.OBJECT, Scope.STATIC, argumentTypeName, String.format("%s.getEnumArgumentType(%s.class)", ARGUMENT_TYPE, element.getQualifiedName()));
+
+    return switch (element.getQualifiedName().toString())
+    {
+      case "java.lang.Integer" -> ParameterModel.ofArgument(index, Kind.OBJECT, Scope.STATIC, INT_ARGUMENT_TYPE,
+        String.format("%s.getIntArgumentType(Integer.MIN_VALUE, Integer.MAX_VALUE, %s)", ARGUMENT_TYPE, emptySuggestions));
+      case "java.lang.Long" -> ParameterModel.ofArgument(index, Kind.OBJECT, Scope.STATIC, LONG_ARGUMENT_TYPE,
+        String.format("%s.getLongArgumentType(Long.MIN_VALUE, Long.MAX_VALUE, %s)", ARGUMENT_TYPE, emptySuggestions));
+      case "java.lang.Double" -> ParameterModel.ofArgument(index, Kind.OBJECT, Scope.STATIC, DOUBLE_ARGUMENT_TYPE,
+        String.format("%s.getDoubleArgumentType(-Double.MAX_VALUE, Double.MAX_VALUE, %s)", ARGUMENT_TYPE, emptySuggestions));
+      case "java.lang.String" -> ParameterModel.ofArgument(index, Kind.OBJECT, Scope.STATIC, argumentTypeName,
+        String.format("%s.getStringArgumentType(%s)", ARGUMENT_TYPE, emptySuggestions));
+      case "org.bukkit.entity.Player" -> ParameterModel.ofArgument(index, Kind.OBJECT, Scope.STATIC, argumentTypeName,
+        String.format("%s.getPlayerArgumentType()", ARGUMENT_TYPE));
+      case "org.bukkit.Material" -> ParameterModel.ofArgument(index, Kind.OBJECT, Scope.STATIC, argumentTypeName,
+        String.format("%s.getMaterialArgumentType(%s.ALL)", ARGUMENT_TYPE, MATERIAL_FILTER));
+      default -> throw new ProcessingException(parameter, String.format("Parameter %s of type %s needs an @Argument annotation", parameter.getSimpleName(), type));
+    };
+  }
+
+  // Create a parameter with an argument type provided by the specified member of the handler
+  private ParameterModel createMemberParameter(TypeElement handler, VariableElement parameter, int index, String memberName) throws ProcessingException
+  {
+    for (var member : this.processingEnv.getElementUtils().getAllMembers(handler))
+    {
+      if (!member.getSimpleName().contentEquals(memberName) || member.getModifiers().contains(Modifier.PRIVATE))
+        continue;
+
+      var isStatic = member.getModifiers().contains(Modifier.STATIC);
+      var target = isStatic ? handler.getQualifiedName().toString() : "handlers";
+
+      // Check for a field
+      if (member.getKind() == ElementKind.FIELD)
+      {
+        var memberType = member.asType();
+        return ParameterModel.ofArgument(index, this.getKind(parameter.asType(), memberType), isStatic ? Scope.STATIC : Scope.INSTANCE,
+          memberType.toString(), String.format("%s.%s", target, memberName));
+      }
+
+      // Check for a method without parameters or with the command context as its only parameter
+      if (member instanceof ExecutableElement method && member.getKind() == ElementKind.METHOD)
+      {
+        var memberType = method.getReturnType();
+        if (method.getParameters().isEmpty())
+          return ParameterModel.ofArgument(index, this.getKind(parameter.asType(), memberType), isStatic ? Scope.STATIC : Scope.INSTANCE,
+            memberType.toString(), String.format("%s.%s()", target, memberName));
+        if (method.getParameters().size() == 1 && this.isType(method.getParameters().get(0).asType(), COMMAND_CONTEXT))
+        {
+          // Check the thrown types of the method, which can only be command exceptions because they are reported to the sender
+          var throwing = false;
+          for (var thrownType : method.getThrownTypes())
+          {
+            if (this.isSubtype(thrownType, COMMAND_EXCEPTION))
+              throwing = true;
+            else if (!this.isSubtype(thrownType, RuntimeException.class.getName()) && !this.isSubtype(thrownType, Error.class.getName()))
+              throw new ProcessingException(method, String.format("A method that provides an argument type can only throw CommandException, not %s", thrownType));
+          }
+
+          return ParameterModel.ofCallArgument(index, this.getKind(parameter.asType(), memberType), memberType.toString(),
+            String.format("%s.%s(context)", isStatic ? target : "this.handlers", memberName), throwing);
+        }
+      }
+    }
+
+    throw new ProcessingException(parameter, String.format("No accessible field or method %s that provides an argument type for parameter %s", memberName, parameter.getSimpleName()));
+  }
+
+
+  // Return the kind of a parameter of the specified type parsed by an argument type of the specified type
+  private Kind getKind(TypeMirror parameterType, TypeMirror argumentType)
+  {
+    if (parameterType.getKind() == TypeKind.INT && this.isType(argumentType, INT_ARGUMENT_TYPE))
+      return Kind.INT;
+    if (parameterType.getKind() == TypeKind.LONG && this.isType(argumentType, LONG_ARGUMENT_TYPE))
+      return Kind.LONG;
+    if (parameterType.getKind() == TypeKind.DOUBLE && this.isType(argumentType, DOUBLE_ARGUMENT_TYPE))
+      return Kind.DOUBLE;
+    return Kind.OBJECT;
+  }
+
+  // Return if the specified type is the declared type with the specified qualified name
+  private boolean isType(TypeMirror type, String qualifiedName)
+  {
+    return type.getKind() == TypeKind.DECLARED && ((TypeElement)((DeclaredType)type).asElement()).getQualifiedName().contentEquals(qualifiedName);
+  }
+
+  // Return if the specified type is a subtype of the type with the specified qualified name
+  private boolean isSubtype(TypeMirror type, String qualifiedName)
+  {
+    var element = this.processingEnv.getElementUtils().getTypeElement(qualifiedName);
+    return element != null && this.processingEnv.getTypeUtils().isAssignable(type, element.asType());
+  }
+
+  // Return the simple names of the specified type and its enclosing types concatenated
+  private String getFlattenedName(TypeElement type)
+  {
+    var name = type.getSimpleName().toString();
+    for (var enclosing = type.getEnclosingElement(); enclosing instanceof TypeElement enclosingType; enclosing = enclosing.getEnclosingElement())
+      name = enclosingType.getSimpleName() + name;
+    return name;
+  }
+
+
+  // Return the annotation with the specified qualified name on the specified element, or null if there is none
+  private AnnotationMirror getAnnotation(Element element, String qualifiedName)
+  {
+    for (var annotation : element.getAnnotationMirrors())
+    {
+      if (((TypeElement)annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(qualifiedName))
+        return annotation;
+    }
+    return null;
+  }
+
+  // Return the value of the specified annotation element, including its default value
+  private Object getValue(AnnotationMirror annotation, String name)
+  {
+    for (var entry : this.processingEnv.getElementUtils().getElementValuesWithDefaults(annotation).entrySet())
+    {
+      if (entry.getKey().getSimpleName().contentEquals(name))
+        return entry.getValue().getValue();
+    }
+    return null;
+  }
+
+  // Return the strings of the specified array annotation element
+  private List<String> getStrings(AnnotationMirror annotation, String name)
+  {
+    var strings = new ArrayList<String>();
+    if (this.getValue(annotation, name) instanceof List<?> values)
+    {
+      for (var value : values)
+        strings.add((String)((AnnotationValue)value).getValue());
+    }
+    return strings;
+  }
+}
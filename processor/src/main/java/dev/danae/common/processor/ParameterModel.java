@@ -0,0 +1,148 @@
+package dev.danae.common.processor;
+
+
+final class ParameterModel
+{
+  // Enum that defines how a parameter is provided to a subcommand method
+  public enum Kind
+  {
+    CONTEXT,
+    INT,
+    LONG,
+    DOUBLE,
+    OBJECT,
+  }
+
+  // Enum that defines when the argument type of a parameter is created
+  public enum Scope
+  {
+    NONE,
+    STATIC,
+    INSTANCE,
+    CALL,
+  }
+
+
+  // The index of the parameter in the subcommand method
+  private final int index;
+
+  // The kind of the parameter
+  private final Kind kind;
+
+  // The scope of the argument type of the parameter
+  private final Scope scope;
+
+  // The declared type of the argument type of the parameter, or null if the parameter has no argument type
+  private final String argumentTypeName;
+
+  // The expression that creates the argument type of the parameter, or null if the parameter has no argument type
+  private final String argumentTypeExpression;
+
+  // Indicates if the expression that creates the argument type can throw a command exception
+  private final boolean throwing;
+
+
+  // Constructor
+  private ParameterModel(int index, Kind kind, Scope scope, String argumentTypeName, String argumentTypeExpression, boolean throwing)
+  {
+    this.index = index;
+    this.kind = kind;
+    this.scope = scope;
+    this.argumentTypeName = argumentTypeName;
+    this.argumentTypeExpression = argumentTypeExpression;
+    this.throwing = throwing;
+  }
+
+  // Return a parameter that is provided with the command context
+  public static ParameterModel ofContext(int index)
+  {
+    return new ParameterModel(index, Kind.CONTEXT, Scope.NONE, null, null, false);
+  }
+
+  // Return a parameter that is parsed using the argument type created by the specified expression
+  public static ParameterModel ofArgument(int index, Kind kind, Scope scope, String argumentTypeName, String argumentTypeExpression)
+  {
+    return new ParameterModel(index, kind, scope, argumentTypeName, argumentTypeExpression, false);
+  }
+
+  // Return a parameter that is parsed using the argument type created for every call by the specified expression, which can throw a command exception
+  public static ParameterModel ofCallArgument(int index, Kind kind, String argumentTypeName, String argumentTypeExpression, boolean throwing)
+  {
+    return new ParameterModel(index, kind, Scope.CALL, argumentTypeName, argumentTypeExpression, throwing);
+  }
+
+
+  // Return the index of the parameter in the subcommand method
+  public int getIndex()
+  {
+    return this.index;
+  }
+
+  // Return the kind of the parameter
+  public Kind getKind()
+  {
+    return this.kind;
+  }
+
+  // Return the scope of the argument type of the parameter
+  public Scope getScope()
+  {
+    return this.scope;
+  }
+
+  // Return if the parameter is parsed from the arguments
+  public boolean isArgument()
+  {
+    return this.kind != Kind.CONTEXT;
+  }
+
+  // Return the declared type of the argument type of the parameter
+  public String getArgumentTypeName()
+  {
+    return this.argumentTypeName;
+  }
+
+  // Return the expression that creates the argument type of the parameter
+  public String getArgumentTypeExpression()
+  {
+    return this.argumentTypeExpression;
+  }
+
+  // Return if the expression that creates the argument type can throw a command exception
+  public boolean isThrowing()
+  {
+    return this.throwing;
+  }
+
+  // Return the reference to the argument type of the parameter in the generated code
+  public String getArgumentTypeReference()
+  {
+    return switch (this.scope)
+    {
+      case STATIC -> String.format("ARGUMENT_TYPE_%d", this.index);
+      case INSTANCE -> String.format("this.argumentType%d", this.index);
+      case CALL -> String.format("argumentType%d", this.index);
+      default -> null;
+    };
+  }
+
+  // Return the variable for the parsed value of the parameter in the generated code
+  public String getVariable()
+  {
+    return this.kind == Kind.CONTEXT ? "context" : String.format("argument%d", this.index);
+  }
+
+  // Return the expression that parses the parameter from the scanner in the generated code
+  public String getParseExpression()
+  {
+    var type = this.getArgumentTypeReference();
+    return switch (this.kind)
+    {
+      case INT -> String.format("%s.parseInt(scanner)", type);
+      case LONG -> String.format("%s.parseLong(scanner)", type);
+      case DOUBLE -> String.format("%s.parseDouble(scanner)", type);
+      case OBJECT -> String.format("scanner.parse(%s)", type);
+      default -> "context";
+    };
+  }
+}
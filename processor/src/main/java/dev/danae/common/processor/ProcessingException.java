@@ -0,0 +1,28 @@
+package dev.danae.common.processor;
+
+import javax.lang.model.element.Element;
+
+
+final class ProcessingException extends Exception
+{
+  // The serial version of the exception
+  private static final long serialVersionUID = 1L;
+
+  // The element that caused the exception
+  private final transient Element element;
+
+
+  // Constructor
+  public ProcessingException(Element element, String message)
+  {
+    super(message);
+    this.element = element;
+  }
+
+
+  // Return the element that caused the exception
+  public Element getElement()
+  {
+    return this.element;
+  }
+}
@@ -0,0 +1,92 @@
+package dev.danae.common.processor;
+
+import java.util.List;
+
+
+final class SubcommandModel
+{
+  // The name of the subcommand, or an empty string for the empty subcommand
+  private final String name;
+
+  // The name of the generated command class
+  private final String className;
+
+  // The name of the subcommand method
+  private final String methodName;
+
+  // Indicates if the subcommand method is static
+  private final boolean isStatic;
+
+  // The required permissions to execute the subcommand
+  private final List<String> permissions;
+
+  // Indicates if the subcommand is handled asynchronously
+  private final boolean async;
+
+  // The parameters of the subcommand method
+  private final List<ParameterModel> parameters;
+
+
+  // Constructor
+  public SubcommandModel(String name, String className, String methodName, boolean isStatic, List<String> permissions, boolean async, List<ParameterModel> parameters)
+  {
+    this.name = name;
+    this.className = className;
+    this.methodName = methodName;
+    this.isStatic = isStatic;
+    this.permissions = List.copyOf(permissions);
+    this.async = async;
+    this.parameters = List.copyOf(parameters);
+  }
+
+
+  // Return the name of the subcommand
+  public String getName()
+  {
+    return this.name;
+  }
+
+  // Return the name of the generated command class
+  public String getClassName()
+  {
+    return this.className;
+  }
+
+  // Return the name of the subcommand method
+  public String getMethodName()
+  {
+    return this.methodName;
+  }
+
+  // Return if the subcommand method is static
+  public boolean isStatic()
+  {
+    return this.isStatic;
+  }
+
+  // Return the required permissions to execute the subcommand
+  public List<String> getPermissions()
+  {
+    return this.permissions;
+  }
+
+  // Return if the subcommand is handled asynchronously
+  public boolean isAsync()
+  {
+    return this.async;
+  }
+
+  // Return the parameters of the subcommand method
+  public List<ParameterModel> getParameters()
+  {
+    return this.parameters;
+  }
+
+  // Return the parameters of the subcommand method that are parsed from the arguments
+  public List<ParameterModel> getArgumentParameters()
+  {
+    return this.parameters.stream()
+      .filter(parameter -> parameter.isArgument())
+      .toList();
+  }
+}
@@ -0,0 +1,163 @@
+package dev.danae.common.processor;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import org.junit.jupiter.api.Test;
+
+
+class CommandProcessorTest
+{
+  // The imports of the command handler sources
+  private static final String IMPORTS = String.join("\n",
+    "package test;",
+    "",
+    "import dev.danae.common.commands.CommandContext;",
+    "import dev.danae.common.commands.SuggestionSource;",
+    "import dev.danae.common.commands.arguments.ArgumentType;",
+    "import dev.danae.common.commands.arguments.IntArgumentType;",
+    "import dev.danae.common.commands.annotations.Argument;",
+    "import dev.danae.common.commands.annotations.CommandHandler;",
+    "import dev.danae.common.commands.annotations.Subcommand;",
+    "");
+
+
+  // Compile the specified command handler source with the processor
+  private static Compilation compile(String... lines)
+  {
+    return javac()
+      .withProcessors(new CommandProcessor())
+      .compile(JavaFileObjects.forSourceString("test.Handlers", IMPORTS + String.join("\n", lines)));
+  }
+
+
+  // Test that a parameter of a type without a built-in argument type is rejected
+  @Test
+  void rejectsUnsupportedParameterType()
+  {
+    var compilation = compile(
+      "@CommandHandler",
+      "public class Handlers",
+      "{",
+      "  @Subcommand(\"find\")",
+      "  void find(java.util.UUID id)",
+      "  {",
+      "  }",
+      "}");
+
+    assertThat(compilation).failed();
+    assertThat(compilation).hadErrorContaining("Parameter id of type java.util.UUID needs an @Argument annotation");
+  }
+
+  // Test that two subcommands with the same name are rejected
+  @Test
+  void rejectsDuplicateSubcommandName()
+  {
+    var compilation = compile(
+      "@CommandHandler",
+      "public class Handlers",
+      "{",
+      "  @Subcommand(\"list\")",
+      "  void list()",
+      "  {",
+      "  }",
+      "",
+      "  @Subcommand(\"list\")",
+      "  void listAll(CommandContext context)",
+      "  {",
+      "  }",
+      "}");
+
+    assertThat(compilation).failed();
+    assertThat(compilation).hadErrorContaining("Duplicate subcommand \"list\"");
+  }
+
+  // Test that a handler method that the generated command group cannot call is rejected
+  @Test
+  void rejectsPrivateHandlerMethod()
+  {
+    var compilation = compile(
+      "@CommandHandler",
+      "public class Handlers",
+      "{",
+      "  @Subcommand(\"hidden\")",
+      "  private void hidden()",
+      "  {",
+      "  }",
+      "}");
+
+    assertThat(compilation).failed();
+    assertThat(compilation).hadErrorContaining("A subcommand method must not be private");
+  }
+
+  // Test that a handler class that the generated command group cannot access is rejected
+  @Test
+  void rejectsPrivateHandlerClass()
+  {
+    var compilation = compile(
+      "public class Handlers",
+      "{",
+      "  @CommandHandler",
+      "  private static class Nested",
+      "  {",
+      "    @Subcommand(\"hidden\")",
+      "    void hidden()",
+      "    {",
+      "    }",
+      "  }",
+      "}");
+
+    assertThat(compilation).failed();
+    assertThat(compilation).hadErrorContaining("A command handler class must not be private");
+  }
+
+  // Test that the generated command group suggests each argument in turn and checks the argument types for the main thread
+  @Test
+  void generatesSuggestions()
+  {
+    var compilation = compile(
+      "@CommandHandler",
+      "public class Handlers",
+      "{",
+      "  final IntArgumentType countArgumentType = ArgumentType.getIntArgumentType(1, 10, SuggestionSource.empty());",
+      "",
+      "  @Subcommand(\"move\")",
+      "  void move(int x, @Argument(\"countArgumentType\") int count)",
+      "  {",
+      "  }",
+      "",
+      "  @Subcommand(\"info\")",
+      "  void info(CommandContext context)",
+      "  {",
+      "  }",
+      "}");
+
+    assertThat(compilation).succeeded();
+
+    var source = assertThat(compilation).generatedSourceFile("test.HandlersCommandGroup").contentsAsUtf8String();
+    source.contains(String.join("\n",
+      "      var index0 = scanner.mark() - start;",
+      "      var parsed0 = scanner.tryParse(ARGUMENT_TYPE_0).isSuccess();",
+      "      if (index0 >= count - 1 || (parsed0 && scanner.isAtEnd()))",
+      "        return ARGUMENT_TYPE_0.suggest(context, index0);",
+      "      if (!parsed0)",
+      "        return java.util.stream.Stream.empty();"));
+    source.contains(String.join("\n",
+      "      var index1 = scanner.mark() - start;",
+      "      var parsed1 = scanner.tryParse(this.argumentType1).isSuccess();",
+      "      if (index1 >= count - 1 || (parsed1 && scanner.isAtEnd()))",
+      "        return this.argumentType1.suggest(context, index1);"));
+    source.contains(String.join("\n",
+      "    public boolean requiresMainThreadToSuggest(dev.danae.common.commands.CommandContext context)",
+      "    {",
+      "      return ARGUMENT_TYPE_0.requiresMainThread() || this.argumentType1.requiresMainThread();",
+      "    }"));
+    source.contains(String.join("\n",
+      "    public java.util.stream.Stream<String> suggest(dev.danae.common.commands.CommandContext context)",
+      "    {",
+      "      return java.util.stream.Stream.empty();",
+      "    }"));
+  }
+}
@@ -0,0 +1,95 @@
+package dev.danae.common.commands;
+
+import com.destroystokyo.paper.event.server.AsyncTabCompleteEvent;
+import org.bukkit.command.PluginCommand;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+
+
+final class AsyncSuggestionListener implements Listener
+{
+  // The command that provides the suggestions
+  private final Command command;
+
+  // The plugin command the command is published to
+  private final PluginCommand pluginCommand;
+
+  // The plugin that published the command
+  private final Plugin plugin;
+
+
+  // Constructor
+  public AsyncSuggestionListener(Command command, PluginCommand pluginCommand, Plugin plugin)
+  {
+    this.command = command;
+    this.pluginCommand = pluginCommand;
+    this.plugin = plugin;
+  }
+
+
+  // Event handler for an asynchronous tab complete event
+  @EventHandler(ignoreCancelled = true)
+  public void onAsyncTabComplete(AsyncTabCompleteEvent event)
+  {
+    if (event.isHandled() || !event.isCommand())
+      return;
+
+    // Split the buffer into the label and the arguments, leaving completion of the label itself to the server
+    var buffer = event.getBuffer();
+    var labelStart = buffer.startsWith("/") ? 1 : 0;
+    var labelEnd = buffer.indexOf(' ', labelStart);
+    if (labelEnd == -1 || !this.matchesLabel(buffer.substring(labelStart, labelEnd)))
+      return;
+
+    var sender = event.getSender();
+    if (!this.pluginCommand.testPermissionSilent(sender))
+      return;
+
+    var line = buffer.subSequence(labelEnd + 1, buffer.length());
+    var arguments = CommandContext.splitLine(line);
+    var memo = this.command.takeSuggestionParseMemo(sender, arguments);
+    try
+    {
+      var context = new CommandContext(this.pluginCommand, arguments, line, sender, this.plugin, memo);
+
+      // Leave the event to the synchronous tab completer if the command needs the main thread
+      if (this.command.requiresMainThreadToSuggest(context))
+        return;
+
+      event.setCompletions(this.command.suggestResult(context).getSuggestions());
+      event.setHandled(true);
+    }
+    catch (IllegalStateException ex)
+    {
+      // The command accessed state that is only available on the main thread, so leave the event to the synchronous tab completer
+    }
+    finally
+    {
+      // Return the memo, so that the synchronous tab completer reuses the parse results if it handles the event instead
+      this.command.returnSuggestionParseMemo(sender, memo);
+    }
+  }
+
+
+  // Return if the specified label refers to the plugin command
+  private boolean matchesLabel(String label)
+  {
+    var namespaceIndex = label.indexOf(':');
+    if (namespaceIndex > -1)
+    {
+      if (!label.substring(0, namespaceIndex).equalsIgnoreCase(this.plugin.getName()))
+        return false;
+      label = label.substring(namespaceIndex + 1);
+    }
+
+    if (label.equalsIgnoreCase(this.pluginCommand.getName()))
+      return true;
+    for (var alias : this.pluginCommand.getAliases())
+    {
+      if (label.equalsIgnoreCase(alias))
+        return true;
+    }
+    return false;
+  }
+}
@@ -0,0 +1,64 @@
+package dev.danae.common.commands;
+
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+
+
+public final class CachedSuggestionSource implements SuggestionSource, Listener
+{
+  // The supplier of the candidates of the source
+  private final Supplier<? extends Stream<String>> supplier;
+
+  // The index over the current candidates of the source, or null if the source has been invalidated
+  private volatile SuggestionIndex index = null;
+
+
+  // Constructor
+  public CachedSuggestionSource(Supplier<? extends Stream<String>> supplier)
+  {
+    this.supplier = supplier;
+  }
+
+
+  // Return the index over the current candidates of the source, building it if the source has been invalidated
+  public SuggestionIndex getIndex()
+  {
+    var index = this.index;
+    if (index == null)
+    {
+      synchronized (this)
+      {
+        index = this.index;
+        if (index == null)
+          this.index = index = SuggestionIndex.of(this.supplier.get());
+      }
+    }
+    return index;
+  }
+
+  // Find the suggestions that contain the specified query, ordered by the position of the query in the suggestion, keeping at most the specified number of suggestions
+  @Override
+  public SuggestionResult findLimited(String query, int limit)
+  {
+    return this.getIndex().findLimited(query, limit);
+  }
+
+
+  // Invalidate the source, so the candidates are requested again on the next query
+  public synchronized void invalidate()
+  {
+    this.index = null;
+  }
+
+  // Invalidate the source whenever an event of the specified type is called
+  public CachedSuggestionSource invalidateOn(Class<? extends Event> eventClass, Plugin plugin)
+  {
+    Bukkit.getPluginManager().registerEvent(eventClass, this, EventPriority.MONITOR, (listener, event) -> this.invalidate(), plugin);
+    return this;
+  }
+}
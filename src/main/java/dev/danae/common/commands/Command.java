@@ -3,12 +3,24 @@ package dev.danae.common.commands;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
 import java.util.stream.Stream;
+import dev.danae.common.commands.arguments.ArgumentType;
+import dev.danae.common.commands.arguments.ParseMemo;
+import dev.danae.common.commands.metrics.CommandMetrics;
+import dev.danae.common.commands.metrics.CommandOutcome;
+import dev.danae.common.commands.metrics.CommandPathMetrics;
 import org.bukkit.Bukkit;
+import org.bukkit.command.BlockCommandSender;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.PluginCommand;
 import org.bukkit.command.TabCompleter;
+import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -16,8 +28,48 @@ import org.bukkit.plugin.java.JavaPlugin;
 
 public abstract class Command implements CommandExecutor, TabCompleter, Listener
 {
+  // The executor for handling asynchronous commands
+  private static final ExecutorService asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+  // The time in milliseconds that later suggestion passes of a sender over the same arguments reuse the parse results of an earlier pass
+  private static final long SUGGESTION_PARSE_MEMO_LIFETIME_MILLIS = 1000;
+
+
   // The required permissions to execute this command
   private final List<String> permissions;
+
+  // The compiled dispatch graph of this command
+  private volatile CommandGraph graph = null;
+
+  // The plugin that published this command
+  private Plugin plugin = null;
+
+  // The name of the plugin command this command is published to
+  private String name = null;
+
+  // The metrics registry for this command, or null if metrics are not recorded
+  private CommandMetrics metrics = null;
+
+  // The maximum number of suggestions that are returned for this command
+  private int suggestionLimit = Integer.MAX_VALUE;
+
+  // The cache for suggestions of this command, or null if suggestions are not cached
+  private SuggestionCache suggestionCache = null;
+
+  // The cache for executions of this command by command blocks, or null if executions are not cached
+  private CommandBlockCache commandBlockCache = null;
+
+  // The argument types that this command parses, which determine if suggestions must be computed on the main thread
+  private List<ArgumentType<?>> argumentTypes = Collections.emptyList();
+
+  // The listener that computes suggestions asynchronously for the plugin command this command is published to, or null if it is not published
+  private AsyncSuggestionListener asyncSuggestionListener = null;
+
+  // Indicates if this command has been registered as a listener, which happens only once when it is published multiple times
+  private boolean eventsPublished = false;
+
+  // The memos for parse results of the last suggestion pass of each sender, which outlive the context of the pass so that the synchronous pass after an asynchronous one or a repeated request reuses its results
+  private final Map<CommandSender, ParseMemo> suggestionParseMemos = Collections.synchronizedMap(new WeakHashMap<>());
   
   
   // Constructor
@@ -33,14 +85,150 @@ public abstract class Command implements CommandExecutor, TabCompleter, Listener
   }
   
   
+  // Return the required permissions to execute this command
+  public List<String> getPermissions()
+  {
+    return this.permissions;
+  }
+  
+  
+  // Compile the dispatch graph of this command
+  public void compile()
+  {
+    this.graph = CommandGraph.compile(this, this.getName(), this.metrics);
+  }
+
+  // Return the dispatch graph of this command, recompiling it if the command groups have been modified since
+  CommandGraph getGraph()
+  {
+    var graph = this.graph;
+    if (graph == null || !graph.isCurrent())
+      this.graph = graph = CommandGraph.compile(this, this.getName(), this.metrics);
+    return graph;
+  }
+  
+  
+  // Return the name of the plugin command this command is published to, or the name of the class if it is not published
+  public String getName()
+  {
+    return this.name != null ? this.name : this.getClass().getSimpleName().toLowerCase();
+  }
+  
+  // Return the metrics registry for this command, or null if metrics are not recorded
+  public CommandMetrics getMetrics()
+  {
+    return this.metrics;
+  }
+
+  // Set the metrics registry for this command
+  public Command setMetrics(CommandMetrics metrics)
+  {
+    this.metrics = metrics;
+    this.graph = null;
+    return this;
+  }
+  
+  // Return the maximum number of suggestions that are returned for this command
+  public int getSuggestionLimit()
+  {
+    return this.suggestionLimit;
+  }
+
+  // Set the maximum number of suggestions that are returned for this command
+  public Command setSuggestionLimit(int suggestionLimit)
+  {
+    if (suggestionLimit < 0)
+      throw new IllegalArgumentException("suggestionLimit must not be smaller than zero");
+
+    this.suggestionLimit = suggestionLimit;
+    return this;
+  }
+  
+  // Return the cache for suggestions of this command, or null if suggestions are not cached
+  public SuggestionCache getSuggestionCache()
+  {
+    return this.suggestionCache;
+  }
+
+  // Set the cache for suggestions of this command, which requires that the suggestions only filter a fixed set of candidates by the last argument like Suggestion.find
+  public Command setSuggestionCache(SuggestionCache suggestionCache)
+  {
+    this.suggestionCache = suggestionCache;
+    return this;
+  }
+  
+  // Return the cache for executions of this command by command blocks, or null if executions are not cached
+  public CommandBlockCache getCommandBlockCache()
+  {
+    return this.commandBlockCache;
+  }
+
+  // Set the cache for executions of this command by command blocks, which reuses the resolved subcommand and the arguments cached in the command context
+  public Command setCommandBlockCache(CommandBlockCache commandBlockCache)
+  {
+    this.commandBlockCache = commandBlockCache;
+    return this;
+  }
+  
+  // Return the argument types that this command parses
+  public List<ArgumentType<?>> getArgumentTypes()
+  {
+    return this.argumentTypes;
+  }
+
+  // Set the argument types that this command parses, so that suggestions are computed on the main thread if one of them requires it
+  public Command setArgumentTypes(ArgumentType<?>... argumentTypes)
+  {
+    this.argumentTypes = List.of(argumentTypes);
+    return this;
+  }
+  
+  // Return if this command is handled asynchronously from the main thread
+  public boolean isAsynchronous()
+  {
+    return false;
+  }
+
+  // Return if suggestions for the specified command context must be computed on the main thread
+  public boolean requiresMainThreadToSuggest(CommandContext context)
+  {
+    return this.argumentTypes.stream().anyMatch(argumentType -> argumentType.requiresMainThread());
+  }
+
+  // Return if suggestions for the specified command context match the last argument ignoring case
+  public boolean ignoresCaseToSuggest(CommandContext context)
+  {
+    return false;
+  }
+
+  // Return if suggestions for the specified command context are prefix-monotone, i.e. the suggestions for a longer last argument are the suggestions for a shorter one that contain it, so that cached suggestions can be narrowed instead of computed again
+  public boolean narrowsToSuggest(CommandContext context)
+  {
+    return false;
+  }
+  
+  
   // Register the command handler to the specified plugin command
   public void publishCommandHandler(Plugin plugin, PluginCommand pluginCommand)
   {
+    // Store the plugin and compile the dispatch graph
+    this.plugin = plugin;
+    this.name = pluginCommand.getName();
+    this.compile();
+    
     // Set the command executor
     pluginCommand.setExecutor(this);
     pluginCommand.setTabCompleter(this);
     
-    // Set the command listener
+    // Set the command listeners, replacing the asynchronous suggestion listener if the command was published before
+    if (this.asyncSuggestionListener != null)
+      HandlerList.unregisterAll(this.asyncSuggestionListener);
+    this.asyncSuggestionListener = new AsyncSuggestionListener(this, pluginCommand, plugin);
+    Bukkit.getPluginManager().registerEvents(this.asyncSuggestionListener, plugin);
+    if (this.suggestionCache != null)
+      this.suggestionCache.publishEvents(plugin);
+    if (this.commandBlockCache != null)
+      this.commandBlockCache.publishEvents(plugin);
     this.publishEvents(plugin);
   }
 
@@ -50,10 +238,14 @@ public abstract class Command implements CommandExecutor, TabCompleter, Listener
     this.publishCommandHandler(plugin, plugin.getCommand(pluginCommandName));
   }
   
-  // Register the command handler as a listener for the specified plugin
+  // Register the command handler as a listener for the specified plugin if it has not been registered yet
   public void publishEvents(Plugin plugin)
   {
+    if (this.eventsPublished)
+      return;
+
     Bukkit.getPluginManager().registerEvents(this, plugin);
+    this.eventsPublished = true;
   }
   
   
@@ -62,6 +254,116 @@ public abstract class Command implements CommandExecutor, TabCompleter, Listener
   
   // Return suggestions for the specified command context
   public abstract Stream<String> suggest(CommandContext context);
+
+  // Return at most the specified number of suggestions for the specified context and the total number of suggestions, which keeps the first suggestions of suggest by default without collecting the others
+  public SuggestionResult suggestLimited(CommandContext context, int limit)
+  {
+    var suggestions = this.suggest(context);
+    return suggestions != null ? Suggestion.findLimited(null, suggestions, limit) : new SuggestionResult(List.of(), 0);
+  }
+  
+  
+  // Return the suggestions for the specified context, which contain at most the maximum number of suggestions for this command and the total number of suggestions
+  public SuggestionResult suggestResult(CommandContext context)
+  {
+    var metrics = this.metrics != null ? this.getGraph().getSuggestionMetrics(context) : null;
+    var startTime = System.nanoTime();
+
+    var limit = this.suggestionLimit;
+    var result = this.suggestionCache != null ? this.suggestionCache.get(context, c -> this.suggestLimited(c, limit), this.narrowsToSuggest(context), this.ignoresCaseToSuggest(context)) : this.suggestLimited(context, limit);
+    if (metrics != null)
+      metrics.recordSuggestion(System.nanoTime() - startTime);
+
+    return result;
+  }
+  
+  // Return the memo for parse results of a suggestion pass of the specified sender over the specified arguments, which is taken out of the memos of this command so that concurrent passes don't share it
+  ParseMemo takeSuggestionParseMemo(CommandSender sender, String[] arguments)
+  {
+    var memo = this.suggestionParseMemos.remove(sender);
+    if (memo == null)
+      memo = new ParseMemo();
+    memo.rebind(arguments, SUGGESTION_PARSE_MEMO_LIFETIME_MILLIS);
+    return memo;
+  }
+
+  // Return the memo for parse results of a finished suggestion pass of the specified sender to the memos of this command
+  void returnSuggestionParseMemo(CommandSender sender, ParseMemo memo)
+  {
+    this.suggestionParseMemos.put(sender, memo);
+  }
+
+
+  // Execute the command for the specified context, either on the current thread or asynchronously
+  void execute(CommandContext context, CommandPathMetrics metrics) throws CommandException, CommandUsageException
+  {
+    if (this.isAsynchronous() && context.getPlugin() != null)
+    {
+      asyncExecutor.execute(() -> this.executeAsynchronously(context, metrics));
+      return;
+    }
+
+    var startTime = System.nanoTime();
+    var outcome = CommandOutcome.ERROR;
+    try
+    {
+      this.handle(context);
+      outcome = CommandOutcome.SUCCESS;
+    }
+    catch (CommandUsageException ex)
+    {
+      outcome = CommandOutcome.USAGE_EXCEPTION;
+      throw ex;
+    }
+    catch (CommandException ex)
+    {
+      outcome = CommandOutcome.COMMAND_EXCEPTION;
+      throw ex;
+    }
+    finally
+    {
+      if (metrics != null)
+        metrics.recordExecution(outcome, System.nanoTime() - startTime);
+    }
+  }
+
+  // Execute the command for the specified context and report exceptions to the sender
+  private void executeAsynchronously(CommandContext context, CommandPathMetrics metrics)
+  {
+    var startTime = System.nanoTime();
+    var outcome = CommandOutcome.ERROR;
+    try
+    {
+      this.handle(context);
+      outcome = CommandOutcome.SUCCESS;
+    }
+    catch (CommandUsageException ex)
+    {
+      outcome = CommandOutcome.USAGE_EXCEPTION;
+
+      var usage = context.getCommand().getUsage();
+      if (usage != null && !usage.isEmpty())
+      {
+        for (var line : usage.replace("<command>", context.getCommand().getName()).split("\n"))
+          context.sendPlainMessage(line);
+      }
+    }
+    catch (CommandException ex)
+    {
+      outcome = CommandOutcome.COMMAND_EXCEPTION;
+      context.sendRichMessage(String.format("<red>%s</red>", ex.getMessage()));
+    }
+    catch (RuntimeException ex)
+    {
+      context.getPlugin().getLogger().log(Level.SEVERE, String.format("Unhandled exception executing command %s asynchronously", context.getCommand().getName()), ex);
+      context.sendRichMessage("<red>An internal error occurred while attempting to perform this command</red>");
+    }
+    finally
+    {
+      if (metrics != null)
+        metrics.recordExecution(outcome, System.nanoTime() - startTime);
+    }
+  }
   
   
   // Event handler for a command event
@@ -70,10 +372,10 @@ public abstract class Command implements CommandExecutor, TabCompleter, Listener
   {
     try
     {
-      var context = new CommandContext(command, args, sender);
-      context.assertSenderHasPermissions(this.permissions);
-      this.handle(context);
-      
+      if (this.commandBlockCache != null && sender instanceof BlockCommandSender blockSender)
+        this.commandBlockCache.execute(this.getGraph(), command, args, blockSender, this.plugin);
+      else
+        this.getGraph().execute(command, args, sender, this.plugin);
       return true;
     }
     catch (CommandUsageException ex)
@@ -91,7 +393,15 @@ public abstract class Command implements CommandExecutor, TabCompleter, Listener
   @Override
   public List<String> onTabComplete(CommandSender sender, org.bukkit.command.Command command, String label, String[] args)
   {
-    var context = new CommandContext(command, args, sender);
-    return this.suggest(context).toList();
+    var memo = this.takeSuggestionParseMemo(sender, args);
+    try
+    {
+      var context = new CommandContext(command, args, 0, args.length, sender, this.plugin, null, memo);
+      return this.suggestResult(context).getSuggestions();
+    }
+    finally
+    {
+      this.returnSuggestionParseMemo(sender, memo);
+    }
   }
 }
@@ -0,0 +1,184 @@
+package dev.danae.common.commands;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.bukkit.Bukkit;
+import org.bukkit.block.Block;
+import org.bukkit.command.BlockCommandSender;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.plugin.Plugin;
+
+
+public final class CommandBlockCache implements Listener
+{
+  // Class that defines the position of a command block
+  private static final class BlockKey
+  {
+    // The identifier of the world of the block
+    private final UUID worldId;
+
+    // The coordinates of the block
+    private final int x;
+    private final int y;
+    private final int z;
+
+
+    // Constructor
+    private BlockKey(Block block)
+    {
+      this.worldId = block.getWorld().getUID();
+      this.x = block.getX();
+      this.y = block.getY();
+      this.z = block.getZ();
+    }
+
+
+    // Return if the key equals another object
+    @Override
+    public boolean equals(Object o)
+    {
+      return o instanceof BlockKey other && this.x == other.x && this.y == other.y && this.z == other.z && this.worldId.equals(other.worldId);
+    }
+
+    // Return the hash code of the key
+    @Override
+    public int hashCode()
+    {
+      return 31 * (31 * (31 * this.worldId.hashCode() + this.x) + this.y) + this.z;
+    }
+  }
+
+  // Class that defines a cached command of a command block
+  private static final class Entry
+  {
+    // The graph that resolved the command
+    private final CommandGraph graph;
+
+    // The raw arguments of the command
+    private final String[] arguments;
+
+    // The node that the arguments resolve to
+    private final CommandGraph.Resolution resolution;
+
+    // The parsed arguments of the command that do not depend on the origin
+    private final Map<Object, Object> argumentCache = new ConcurrentHashMap<>();
+
+
+    // Constructor
+    private Entry(CommandGraph graph, String[] arguments, CommandGraph.Resolution resolution)
+    {
+      this.graph = graph;
+      this.arguments = arguments;
+      this.resolution = resolution;
+    }
+  }
+
+
+  // The cached command of each command block
+  private final Map<BlockKey, Entry> entries = new ConcurrentHashMap<>();
+
+  // Indicates if the cache has been registered as a listener, which happens only once when it is shared between commands
+  private boolean eventsPublished = false;
+
+
+  // Return the number of cached command blocks
+  public int size()
+  {
+    return this.entries.size();
+  }
+
+  // Invalidate all entries in the cache
+  public void invalidate()
+  {
+    this.entries.clear();
+  }
+
+  // Invalidate the entry of the specified block
+  public void invalidate(Block block)
+  {
+    this.entries.remove(new BlockKey(block));
+  }
+
+
+  // Execute the specified arguments for the command block with the specified graph, reusing the resolved node and parsed arguments if the block executed the same arguments before
+  void execute(CommandGraph graph, org.bukkit.command.Command command, String[] arguments, BlockCommandSender sender, Plugin plugin) throws CommandException, CommandUsageException
+  {
+    var key = new BlockKey(sender.getBlock());
+
+    // Replace the entry if the command groups have changed or the command of the block has been edited
+    var entry = this.entries.get(key);
+    if (entry == null || entry.graph != graph || !Arrays.equals(entry.arguments, arguments))
+    {
+      entry = new Entry(graph, arguments.clone(), graph.resolve(arguments));
+      this.entries.put(key, entry);
+    }
+
+    graph.execute(entry.resolution, command, arguments, sender, plugin, entry.argumentCache);
+  }
+
+
+  // Register the cache as a listener for the specified plugin if it has not been registered yet
+  public void publishEvents(Plugin plugin)
+  {
+    if (this.eventsPublished)
+      return;
+
+    Bukkit.getPluginManager().registerEvents(this, plugin);
+    this.eventsPublished = true;
+  }
+
+  // Event handler for when a block is broken
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockBreak(BlockBreakEvent event)
+  {
+    if (!this.entries.isEmpty())
+      this.invalidate(event.getBlock());
+  }
+
+  // Event handler for when a block explodes
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockExplode(BlockExplodeEvent event)
+  {
+    if (!this.entries.isEmpty())
+      event.blockList().forEach(this::invalidate);
+  }
+
+  // Event handler for when an entity explodes
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onEntityExplode(EntityExplodeEvent event)
+  {
+    if (!this.entries.isEmpty())
+      event.blockList().forEach(this::invalidate);
+  }
+
+  // Event handler for when a chunk is unloaded, which also drops the entries of command blocks that were removed without an event, such as by /setblock
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onChunkUnload(ChunkUnloadEvent event)
+  {
+    if (this.entries.isEmpty())
+      return;
+
+    var chunk = event.getChunk();
+    var worldId = chunk.getWorld().getUID();
+    var chunkX = chunk.getX();
+    var chunkZ = chunk.getZ();
+    this.entries.keySet().removeIf(key -> key.x >> 4 == chunkX && key.z >> 4 == chunkZ && key.worldId.equals(worldId));
+  }
+
+  // Event handler for when a world is unloaded
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onWorldUnload(WorldUnloadEvent event)
+  {
+    var worldId = event.getWorld().getUID();
+    this.entries.keySet().removeIf(key -> key.worldId.equals(worldId));
+  }
+}
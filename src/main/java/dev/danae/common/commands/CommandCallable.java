@@ -0,0 +1,9 @@
+package dev.danae.common.commands;
+
+
+@FunctionalInterface
+public interface CommandCallable<T>
+{
+  // Compute a result
+  public T call() throws CommandException;
+}
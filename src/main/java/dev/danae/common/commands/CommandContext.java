@@ -2,10 +2,18 @@ package dev.danae.common.commands;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Predicate;
+import dev.danae.common.commands.arguments.ArgumentException;
+import dev.danae.common.commands.arguments.ArgumentFunction;
+import dev.danae.common.commands.arguments.ArgumentSlice;
+import dev.danae.common.commands.arguments.ParseMemo;
 import dev.danae.common.commands.arguments.Scanner;
 import dev.danae.common.util.Cuboid;
 import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
 import org.bukkit.Location;
 import org.bukkit.command.BlockCommandSender;
@@ -15,6 +23,7 @@ import org.bukkit.command.ConsoleCommandSender;
 import org.bukkit.conversations.Conversable;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
 
 
 public class CommandContext
@@ -24,17 +33,90 @@ public class CommandContext
   
   // The arguments of the command that is being executed
   private final String[] arguments;
+
+  // The offset and length of the view over the arguments
+  private final int offset;
+  private final int length;
   
   // The sender of the command that is being executed
   private final CommandSender sender;
+
+  // The plugin that published the command that is being executed, or null if there is none
+  private final Plugin plugin;
+
+  // The cache for parsed arguments that are shared between repeated executions of the same command, or null if there is none
+  private final Map<Object, Object> argumentCache;
+
+  // The memo for parse results of argument types over the arguments, which is shared between all scanners of the context and its slices, and between suggestion passes of the same sender over the same arguments
+  private final ParseMemo parseMemo;
+
+  // The raw line that the arguments were split from on single spaces, or null if the context was created from pre-split arguments
+  private final CharSequence line;
   
   
-  // Constructor
-  public CommandContext(Command command, String[] arguments, CommandSender sender)
+  // Constructor for a view over the specified range of arguments that were split from the specified raw line, with a cache for parsed arguments and a memo for parse results
+  CommandContext(Command command, String[] arguments, int offset, int length, CommandSender sender, Plugin plugin, Map<Object, Object> argumentCache, ParseMemo parseMemo, CharSequence line)
   {
+    Objects.checkFromIndexSize(offset, length, arguments.length);
+
     this.command = command;
     this.arguments = arguments;
+    this.offset = offset;
+    this.length = length;
     this.sender = sender;
+    this.plugin = plugin;
+    this.argumentCache = argumentCache;
+    this.parseMemo = parseMemo;
+    this.line = line;
+  }
+
+  // Constructor for a view over the specified range of arguments with a cache for parsed arguments and a memo for parse results
+  CommandContext(Command command, String[] arguments, int offset, int length, CommandSender sender, Plugin plugin, Map<Object, Object> argumentCache, ParseMemo parseMemo)
+  {
+    this(command, arguments, offset, length, sender, plugin, argumentCache, parseMemo, null);
+  }
+
+  // Constructor for a view over the specified range of arguments with a cache for parsed arguments
+  CommandContext(Command command, String[] arguments, int offset, int length, CommandSender sender, Plugin plugin, Map<Object, Object> argumentCache)
+  {
+    this(command, arguments, offset, length, sender, plugin, argumentCache, new ParseMemo());
+  }
+
+  // Constructor for a view over the specified range of arguments
+  CommandContext(Command command, String[] arguments, int offset, int length, CommandSender sender, Plugin plugin)
+  {
+    this(command, arguments, offset, length, sender, plugin, null);
+  }
+
+  // Constructor for a plugin
+  public CommandContext(Command command, String[] arguments, CommandSender sender, Plugin plugin)
+  {
+    this(command, arguments, 0, arguments.length, sender, plugin);
+  }
+
+  // Constructor
+  public CommandContext(Command command, String[] arguments, CommandSender sender)
+  {
+    this(command, arguments, sender, null);
+  }
+
+  // Constructor for a raw line of arguments, which is split on single spaces like the arguments that Bukkit passes to commands
+  public CommandContext(Command command, CharSequence line, CommandSender sender, Plugin plugin)
+  {
+    this(command, splitLine(line), line, sender, plugin, new ParseMemo());
+  }
+
+  // Constructor for a raw line of arguments and the arguments that were split from it with a memo for parse results
+  CommandContext(Command command, String[] arguments, CharSequence line, CommandSender sender, Plugin plugin, ParseMemo parseMemo)
+  {
+    this(command, arguments, 0, arguments.length, sender, plugin, null, parseMemo, line);
+  }
+
+
+  // Split the specified raw line on single spaces like the arguments that Bukkit passes to commands
+  static String[] splitLine(CharSequence line)
+  {
+    return line.toString().split(" ", -1);
   }
   
   
@@ -44,16 +126,29 @@ public class CommandContext
     return this.command;
   }
   
-  // Return the arguments of the command that is being executed
+  // Return the arguments of the command that is being executed, which is a copy if the context is a slice of the arguments
   public String[] getArguments()
   {
-    return this.arguments;
+    if (this.offset == 0 && this.length == this.arguments.length)
+      return this.arguments;
+    else
+      return Arrays.copyOfRange(this.arguments, this.offset, this.offset + this.length);
   }
 
   // Return the joined arguments of the command that is being executed starting from the specified index
   public String getJoinedArguments(int startIndex)
   {
-    return String.join(" ", Arrays.stream(this.arguments).skip(startIndex).toList());
+    var start = this.offset + Math.max(startIndex, 0);
+    var end = this.offset + this.length;
+    if (start >= end)
+      return "";
+    if (this.line != null)
+      return this.getJoinedArgumentsSlice(startIndex).toString();
+
+    var builder = new StringBuilder(this.arguments[start]);
+    for (var i = start + 1; i < end; i ++)
+      builder.append(' ').append(this.arguments[i]);
+    return builder.toString();
   }
 
   // Return the joined arguments of the command that is being executed
@@ -62,28 +157,84 @@ public class CommandContext
     return this.getJoinedArguments(0);
   }
   
-  // Return a scanner over the arguments of the context
-  public Scanner getArgumentsScanner()
+  // Return the joined arguments of the command that is being executed starting from the specified index as a slice, which is a view over the raw line without copying if the context was created from one
+  public ArgumentSlice getJoinedArgumentsSlice(int startIndex)
+  {
+    if (this.line == null)
+      return new ArgumentSlice(this.getJoinedArguments(startIndex));
+
+    var start = this.offset + Math.max(startIndex, 0);
+    var end = this.offset + this.length;
+    if (start >= end)
+      return new ArgumentSlice("");
+
+    // Find the range of the arguments in the raw line, where the arguments are separated by single spaces
+    var lineStart = 0;
+    for (var i = 0; i < start; i ++)
+      lineStart += this.arguments[i].length() + 1;
+    var lineEnd = lineStart + end - start - 1;
+    for (var i = start; i < end; i ++)
+      lineEnd += this.arguments[i].length();
+    return new ArgumentSlice(this.line, lineStart, lineEnd);
+  }
+
+  // Return the joined arguments of the command that is being executed as a slice
+  public ArgumentSlice getJoinedArgumentsSlice()
+  {
+    return this.getJoinedArgumentsSlice(0);
+  }
+
+  // Return a scanner over the raw line of the arguments, which treats double-quoted text as a single token and hands out slices of the line without copying, or over the joined arguments if the context was not created from a raw line
+  public Scanner getLineScanner()
   {
-    return new Scanner(this.arguments);
+    return new Scanner(this.getJoinedArgumentsSlice(0));
   }
   
+  // Return a scanner over the arguments of the context, which reuses the results of argument types that have been parsed by earlier scanners of the context at the same index
+  public Scanner getArgumentsScanner()
+  {
+    return new Scanner(this.arguments, this.offset, this.length, this.parseMemo);
+  }
+
+  // Return if the context has a cache for parsed arguments, i.e. the command is repeatedly executed by the same command block
+  public boolean hasArgumentCache()
+  {
+    return this.argumentCache != null;
+  }
+
+  // Return the parsed argument for the specified key from the cache of the context, or parse and cache it using the specified function, which must not depend on the sender or its location
+  @SuppressWarnings("unchecked")
+  public <T> T getCachedArgument(Object key, ArgumentFunction<CommandContext, T> parser) throws ArgumentException
+  {
+    if (this.argumentCache == null)
+      return parser.apply(this);
+
+    var value = (T)this.argumentCache.get(key);
+    if (value == null)
+    {
+      value = parser.apply(this);
+      if (value != null)
+        this.argumentCache.putIfAbsent(key, value);
+    }
+    return value;
+  }
+
   // Return the argument of the context with the specified index
   public String getArgument(int index)
   {
-    return index >= 0 && index < this.arguments.length ? this.arguments[index] : "";
+    return index >= 0 && index < this.length ? this.arguments[this.offset + index] : "";
   }
 
   // Return the argument of the context with the specified index starting at the end
   public String getLastArgument(int index)
   {
-    return index >= 0 && index < this.arguments.length ? this.arguments[this.arguments.length - index - 1] : "";
+    return index >= 0 && index < this.length ? this.arguments[this.offset + this.length - index - 1] : "";
   }
 
   // Return the index of the first argument that matches the specified predicate
   public int findArgumentIndex(Predicate<String> predicate)
   {
-    for (var i = 0; i < this.arguments.length; i ++)
+    for (var i = 0; i < this.length; i ++)
     {
       if (predicate.test(this.getArgument(i)))
         return i;
@@ -100,7 +251,7 @@ public class CommandContext
   // Return the index of the last argument that matches the specified predicate starting at the end
   public int findLastArgumentIndex(Predicate<String> predicate)
   {
-    for (var i = 0; i < this.arguments.length; i ++)
+    for (var i = 0; i < this.length; i ++)
     {
       if (predicate.test(this.getLastArgument(i)))
         return i;
@@ -117,25 +268,25 @@ public class CommandContext
   // Return the number of arguments of the contact
   public int getArgumentsCount()
   {
-    return this.arguments.length;
+    return this.length;
   }
   
   // Return if the context has exactly the specified number of arguments
   public boolean hasArgumentsCount(int length)
   {
-    return this.arguments.length == length;
+    return this.length == length;
   }
   
   // Return if the context has at least the specified number of arguments
   public boolean hasAtLeastArgumentsCount(int length)
   {
-    return this.arguments.length >= length;
+    return this.length >= length;
   }
   
   // Return if the context has at most the specified number of arguments
   public boolean hasAtMostArgumentsCount(int length)
   {
-    return this.arguments.length <= length;
+    return this.length <= length;
   }
   
   // Return the sender of the command that is being executed
@@ -143,6 +294,12 @@ public class CommandContext
   {
     return this.sender;
   }
+
+  // Return the plugin that published the command that is being executed, or null if there is none
+  public Plugin getPlugin()
+  {
+    return this.plugin;
+  }
   
   
   // Assert if the sender is a console sender
@@ -240,15 +397,63 @@ public class CommandContext
   }
   
   
-  // Return a new context with the arguments of the context sliced within the specified range
+  // Call the specified function on the main thread and return its result, waiting for it if called from another thread
+  public <T> T callOnMainThread(CommandCallable<T> callable) throws CommandException
+  {
+    if (Bukkit.isPrimaryThread())
+      return callable.call();
+    if (this.plugin == null)
+      throw new IllegalStateException("The main thread can only be called from a context with a plugin");
+
+    try
+    {
+      return Bukkit.getScheduler().callSyncMethod(this.plugin, () -> callable.call()).get();
+    }
+    catch (InterruptedException ex)
+    {
+      Thread.currentThread().interrupt();
+      throw new CommandException("The command was interrupted", ex);
+    }
+    catch (ExecutionException ex)
+    {
+      if (ex.getCause() instanceof CommandException commandException)
+        throw commandException;
+      else if (ex.getCause() instanceof RuntimeException runtimeException)
+        throw runtimeException;
+      else
+        throw new IllegalStateException(ex.getCause());
+    }
+  }
+
+  // Run the specified function on the main thread, waiting for it if called from another thread
+  public void runOnMainThread(CommandRunnable runnable) throws CommandException
+  {
+    this.callOnMainThread(() -> {
+      runnable.run();
+      return null;
+    });
+  }
+
+  // Schedule the specified function on the main thread without waiting for it
+  public void scheduleOnMainThread(Runnable runnable)
+  {
+    if (this.plugin == null)
+      throw new IllegalStateException("The main thread can only be scheduled from a context with a plugin");
+
+    Bukkit.getScheduler().runTask(this.plugin, runnable);
+  }
+  
+  
+  // Return a new context with the arguments of the context sliced within the specified range, sharing the arguments of the context
   public CommandContext withSlicedArguments(int from, int to)
   {
-    return new CommandContext(this.command, Arrays.copyOfRange(this.arguments, from, to), this.sender);
+    Objects.checkFromToIndex(from, to, this.length);
+    return new CommandContext(this.command, this.arguments, this.offset + from, to - from, this.sender, this.plugin, this.argumentCache, this.parseMemo, this.line);
   }
   
-  // Return a new context with the arguments of the context sliced from the specified start
+  // Return a new context with the arguments of the context sliced from the specified start, sharing the arguments of the context
   public CommandContext withSlicedArguments(int from)
   {
-    return this.withSlicedArguments(from, this.arguments.length);
+    return this.withSlicedArguments(from, this.length);
   }
 }
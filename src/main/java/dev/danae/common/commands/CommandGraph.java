@@ -0,0 +1,256 @@
+package dev.danae.common.commands;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import dev.danae.common.commands.metrics.CommandMetrics;
+import dev.danae.common.commands.metrics.CommandPathMetrics;
+import org.bukkit.command.CommandSender;
+import org.bukkit.plugin.Plugin;
+
+
+final class CommandGraph
+{
+  // The metrics path segment of an empty subcommand, which keeps its executions apart from the rejections of its group
+  static final String EMPTY_SUBCOMMAND_PATH = "<empty>";
+
+
+  // Class that defines a node in the graph
+  private static final class Node
+  {
+    // The command that handles the node, or null if the node is a group
+    private final Command handler;
+
+    // The permissions that are required to reach the node, including those of its ancestors
+    private final List<String> permissions;
+
+    // The metrics for the command path of the node, or null if metrics are not recorded
+    private final CommandPathMetrics metrics;
+
+    // The index of the subcommand nodes of the node
+    private final SubcommandIndex<Node> subcommands = new SubcommandIndex<>();
+
+    // The node for when no other subcommand has been specified
+    private Node emptySubcommand = null;
+
+    // Indicates if subcommands of the node can be resolved by a unique prefix of their name
+    private boolean uniquePrefixResolution = false;
+
+
+    // Constructor
+    private Node(Command handler, List<String> permissions, CommandPathMetrics metrics)
+    {
+      this.handler = handler;
+      this.permissions = permissions;
+      this.metrics = metrics;
+    }
+
+
+    // Return the subcommand node for the specified name
+    private Node getSubcommand(String name)
+    {
+      return this.uniquePrefixResolution ? this.subcommands.resolve(name) : this.subcommands.get(name);
+    }
+  }
+
+
+  // The root node of the graph
+  private final Node root;
+
+  // Indicates if the graph still reflects the structure of its command groups, which is cleared when one of them is modified
+  private volatile boolean current = true;
+
+  // The nodes of the graph
+  private final List<Node> nodes = new ArrayList<>();
+
+  // The metrics registry of the graph, or null if metrics are not recorded
+  private final CommandMetrics metrics;
+
+
+  // Constructor
+  private CommandGraph(Command command, String name, CommandMetrics metrics)
+  {
+    this.metrics = metrics;
+    this.root = this.compile(command, name, List.of(), Collections.newSetFromMap(new IdentityHashMap<>()));
+  }
+
+  // Compile a command graph for the specified command with the specified name and metrics registry
+  public static CommandGraph compile(Command command, String name, CommandMetrics metrics)
+  {
+    return new CommandGraph(command, name, metrics);
+  }
+
+
+  // Return the number of nodes in the graph
+  public int size()
+  {
+    return this.nodes.size();
+  }
+
+  // Return if the graph still reflects the current structure of its command groups
+  public boolean isCurrent()
+  {
+    return this.current;
+  }
+
+  // Mark the graph as no longer reflecting the structure of its command groups
+  void invalidate()
+  {
+    this.current = false;
+  }
+
+
+  // Class that defines the node that an array of arguments resolves to
+  static final class Resolution
+  {
+    // The resolved node
+    private final Node node;
+
+    // The number of arguments that were consumed to reach the node
+    private final int offset;
+
+
+    // Constructor
+    private Resolution(Node node, int offset)
+    {
+      this.node = node;
+      this.offset = offset;
+    }
+  }
+
+
+  // Resolve the node for the specified arguments by walking the graph along them
+  public Resolution resolve(String[] arguments)
+  {
+    var node = this.root;
+    var offset = 0;
+    while (node.handler == null)
+    {
+      var next = offset < arguments.length ? node.getSubcommand(arguments[offset]) : null;
+      if (next != null)
+      {
+        node = next;
+        offset ++;
+      }
+      else if (node.emptySubcommand != null)
+      {
+        node = node.emptySubcommand;
+      }
+      else
+      {
+        break;
+      }
+    }
+    return new Resolution(node, offset);
+  }
+
+  // Resolve the handler for the specified arguments and execute it
+  public void execute(org.bukkit.command.Command command, String[] arguments, CommandSender sender, Plugin plugin) throws CommandException, CommandUsageException
+  {
+    this.execute(this.resolve(arguments), command, arguments, sender, plugin, null);
+  }
+
+  // Execute the handler of the specified resolution, which must have been resolved from the same arguments by this graph
+  public void execute(Resolution resolution, org.bukkit.command.Command command, String[] arguments, CommandSender sender, Plugin plugin, Map<Object, Object> argumentCache) throws CommandException, CommandUsageException
+  {
+    var node = resolution.node;
+
+    // Check the permissions of the path once
+    for (var permission : node.permissions)
+    {
+      if (!sender.hasPermission(permission))
+      {
+        if (node.metrics != null)
+          node.metrics.recordRejection();
+        throw new CommandException("You don't have sufficient permission to execute this command");
+      }
+    }
+
+    // Check if a handler has been found
+    if (node.handler == null)
+    {
+      if (node.metrics != null)
+        node.metrics.recordRejection();
+      throw new CommandException("You must provide a valid subcommand");
+    }
+
+    // Handle the command
+    var context = new CommandContext(command, arguments, resolution.offset, arguments.length - resolution.offset, sender, plugin, argumentCache);
+    node.handler.execute(context, node.metrics);
+  }
+
+  // Return the metrics for the deepest command path that the arguments before the argument that is being completed resolve to
+  public CommandPathMetrics getSuggestionMetrics(CommandContext context)
+  {
+    var node = this.root;
+    for (var i = 0; i < context.getArgumentsCount() - 1 && node.handler == null; i ++)
+    {
+      var next = node.getSubcommand(context.getArgument(i));
+      if (next == null)
+        break;
+      node = next;
+    }
+    return node.metrics;
+  }
+
+
+  // Compile the node for the specified command
+  private Node compile(Command command, String name, List<String> inheritedPermissions, Set<Command> path)
+  {
+    if (!path.add(command))
+      throw new IllegalStateException("A command group must not contain itself");
+
+    // Accumulate the permissions of the path
+    List<String> permissions = inheritedPermissions;
+    if (!command.getPermissions().isEmpty())
+    {
+      var permissionSet = new LinkedHashSet<String>(inheritedPermissions);
+      permissionSet.addAll(command.getPermissions());
+      permissions = List.copyOf(permissionSet);
+    }
+
+    // Create the node
+    var metrics = this.metrics != null ? this.metrics.getPath(name) : null;
+
+    Node node;
+    if (command instanceof CommandGroup group && isCompilable(group))
+    {
+      // Subscribe to modifications of the group before reading its subcommands
+      group.addGraph(this);
+
+      node = new Node(null, permissions, metrics);
+      node.uniquePrefixResolution = group.hasUniquePrefixResolution();
+
+      var subcommands = group.getSubcommands();
+      for (var subcommandName : subcommands.names(""))
+        node.subcommands.put(subcommandName, this.compile(subcommands.get(subcommandName), name + " " + subcommandName, permissions, path));
+      if (group.getEmptySubcommand() != null)
+        node.emptySubcommand = this.compile(group.getEmptySubcommand(), name + " " + EMPTY_SUBCOMMAND_PATH, permissions, path);
+    }
+    else
+    {
+      node = new Node(command, permissions, metrics);
+    }
+
+    this.nodes.add(node);
+    path.remove(command);
+    return node;
+  }
+
+  // Return if the specified command group can be flattened into the graph, i.e. it does not override handling of the command
+  private static boolean isCompilable(CommandGroup group)
+  {
+    try
+    {
+      return group.getClass().getMethod("handle", CommandContext.class).getDeclaringClass() == CommandGroup.class;
+    }
+    catch (NoSuchMethodException ex)
+    {
+      return false;
+    }
+  }
+}
@@ -1,7 +1,10 @@
 package dev.danae.common.commands;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.stream.Stream;
 import org.bukkit.plugin.Plugin;
 
@@ -19,15 +22,26 @@ public class CommandGroup extends Command
   {
   }
   
-  // Map of subcommands
-  private final Map<String, Command> subcommands = new HashMap<>();
+  // Index of subcommands
+  private final SubcommandIndex<Command> subcommands = new SubcommandIndex<>();
   private Command emptySubcommand = null;
+
+  // Indicates if subcommands can be resolved by a unique prefix of their name
+  private boolean uniquePrefixResolution = false;
+
+  // Index of suggestions for the names of the subcommands, which is rebuilt when the subcommands change
+  private volatile SuggestionIndex subcommandSuggestions = null;
+
+  // The compiled dispatch graphs that contain the command group, which are invalidated when the command group is modified
+  private final Set<CommandGraph> graphs = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
   
   
   // Register a subcommand
   public CommandGroup registerSubcommand(String name, Command command)
   {
     this.subcommands.put(name, command);
+    this.subcommandSuggestions = null;
+    this.invalidateGraphs();
     return this;
   }
   
@@ -35,6 +49,8 @@ public class CommandGroup extends Command
   public CommandGroup unregisterSubcommand(String name)
   {
     this.subcommands.remove(name);
+    this.subcommandSuggestions = null;
+    this.invalidateGraphs();
     return this;
   }
 
@@ -42,6 +58,7 @@ public class CommandGroup extends Command
   public CommandGroup registerEmptySubcommand(Command command)
   {
     this.emptySubcommand = command;
+    this.invalidateGraphs();
     return this;
   }
 
@@ -58,18 +75,67 @@ public class CommandGroup extends Command
   public CommandGroup unregisterEmptySubcommand()
   {
     this.emptySubcommand = null;
+    this.invalidateGraphs();
+    return this;
+  }
+
+  // Set if subcommands can be resolved by a unique prefix of their name
+  public CommandGroup setUniquePrefixResolution(boolean uniquePrefixResolution)
+  {
+    this.uniquePrefixResolution = uniquePrefixResolution;
+    this.invalidateGraphs();
     return this;
   }
   
   
+  // Return the index of subcommands
+  SubcommandIndex<Command> getSubcommands()
+  {
+    return this.subcommands;
+  }
+
+  // Return the subcommand for when no other subcommand has been specified
+  Command getEmptySubcommand()
+  {
+    return this.emptySubcommand;
+  }
+
+  // Return if subcommands can be resolved by a unique prefix of their name
+  boolean hasUniquePrefixResolution()
+  {
+    return this.uniquePrefixResolution;
+  }
+
+  // Return the index of suggestions for the names of the subcommands
+  SuggestionIndex getSubcommandSuggestions()
+  {
+    var subcommandSuggestions = this.subcommandSuggestions;
+    if (subcommandSuggestions == null)
+      this.subcommandSuggestions = subcommandSuggestions = SuggestionIndex.of(this.subcommands.names(""), true);
+    return subcommandSuggestions;
+  }
+
+  // Add a compiled dispatch graph that contains the command group
+  void addGraph(CommandGraph graph)
+  {
+    this.graphs.add(graph);
+  }
+
+  // Invalidate the compiled dispatch graphs that contain the command group, which are recompiled when they are used next
+  private void invalidateGraphs()
+  {
+    synchronized (this.graphs)
+    {
+      for (var graph : this.graphs)
+        graph.invalidate();
+      this.graphs.clear();
+    }
+  }
+  
   // Return a subcommand for the specified name
   public Command getSubcommand(String name)
   {
-    return this.subcommands.entrySet().stream()
-      .filter(e -> e.getKey().equalsIgnoreCase(name))
-      .map(e -> e.getValue())
-      .findFirst()
-      .orElse(null);
+    return this.uniquePrefixResolution ? this.subcommands.resolve(name) : this.subcommands.get(name);
   }
   
   
@@ -109,15 +175,18 @@ public class CommandGroup extends Command
     {
       var arg = context.getArgument(0);
       
-      // Create the stream of the subcommands
-      var stream = this.subcommands.keySet().stream();
+      // Create the stream of the subcommands that contain the argument
+      var stream = this.getSubcommandSuggestions().find(arg);
 
-      // Add the tab completion for the empty subcommand if applicable
+      // Add the filtered tab completion for the empty subcommand if applicable
       if (this.emptySubcommand != null)
-        stream = Stream.concat(stream, this.emptySubcommand.suggest(context));
+      {
+        var emptySubcommandSuggestions = this.emptySubcommand.suggest(context);
+        if (emptySubcommandSuggestions != null)
+          stream = Stream.concat(stream, Suggestion.find(arg, emptySubcommandSuggestions));
+      }
 
-      // Filter the stream based on the argument
-      return Suggestion.find(arg, stream);
+      return stream;
     }
       
     // Otherwise, check if there is a subcommand that matches and delegate to that
@@ -128,6 +197,80 @@ public class CommandGroup extends Command
     return handler.suggest(context.withSlicedArguments(1));
   }
   
+  // Return at most the specified number of suggestions for the specified context, applying the limit once across the names of the subcommands and the suggestions of the empty subcommand
+  @Override
+  public SuggestionResult suggestLimited(CommandContext context, int limit)
+  {
+    // Check if the arguments provide a subcommand
+    if (!context.hasAtLeastArgumentsCount(1))
+      return new SuggestionResult(List.of(), 0);
+
+    // If there only is one argument, then tab complete the name of the subcommand
+    if (context.hasArgumentsCount(1))
+    {
+      var arg = context.getArgument(0);
+      var names = this.getSubcommandSuggestions().findLimited(arg, limit);
+      if (this.emptySubcommand == null)
+        return names;
+
+      // Fill the remaining suggestions with the filtered tab completion for the empty subcommand
+      var emptySubcommandSuggestions = this.emptySubcommand.suggest(context);
+      if (emptySubcommandSuggestions == null)
+        return names;
+
+      var rest = Suggestion.findLimited(arg, emptySubcommandSuggestions, limit - names.getSuggestions().size());
+      var suggestions = new ArrayList<String>(names.getSuggestions());
+      suggestions.addAll(rest.getSuggestions());
+      return new SuggestionResult(List.copyOf(suggestions), names.getTotalCount() + rest.getTotalCount());
+    }
+
+    // Otherwise, check if there is a subcommand that matches and delegate to that with the same limit
+    var handler = this.getSubcommand(context.getArgument(0));
+    if (handler == null)
+      return new SuggestionResult(List.of(), 0);
+
+    return handler.suggestLimited(context.withSlicedArguments(1), limit);
+  }
+  
+  // Return if suggestions for the specified command context must be computed on the main thread
+  @Override
+  public boolean requiresMainThreadToSuggest(CommandContext context)
+  {
+    // Check if the subcommand name is being suggested
+    if (!context.hasAtLeastArgumentsCount(2))
+      return this.emptySubcommand != null && this.emptySubcommand.requiresMainThreadToSuggest(context);
+
+    // Otherwise, check if there is a subcommand that matches and delegate to that
+    var handler = this.getSubcommand(context.getArgument(0));
+    return handler != null && handler.requiresMainThreadToSuggest(context.withSlicedArguments(1));
+  }
+
+  // Return if suggestions for the specified command context match the last argument ignoring case, which is the case for the names of the subcommands
+  @Override
+  public boolean ignoresCaseToSuggest(CommandContext context)
+  {
+    // Check if the subcommand name is being suggested
+    if (!context.hasAtLeastArgumentsCount(2))
+      return true;
+
+    // Otherwise, check if there is a subcommand that matches and delegate to that
+    var handler = this.getSubcommand(context.getArgument(0));
+    return handler != null && handler.ignoresCaseToSuggest(context.withSlicedArguments(1));
+  }
+  
+  // Return if suggestions for the specified command context are prefix-monotone, which is the case for the names of the subcommands if the empty subcommand does not add other suggestions
+  @Override
+  public boolean narrowsToSuggest(CommandContext context)
+  {
+    // Check if the subcommand name is being suggested
+    if (!context.hasAtLeastArgumentsCount(2))
+      return this.emptySubcommand == null || this.emptySubcommand.narrowsToSuggest(context);
+
+    // Otherwise, check if there is a subcommand that matches and delegate to that
+    var handler = this.getSubcommand(context.getArgument(0));
+    return handler != null && handler.narrowsToSuggest(context.withSlicedArguments(1));
+  }
+  
   // Register the command handler as a listener for the specified plugin
   @Override
   public void publishEvents(Plugin plugin)
@@ -0,0 +1,9 @@
+package dev.danae.common.commands;
+
+
+@FunctionalInterface
+public interface CommandRunnable
+{
+  // Run the action
+  public void run() throws CommandException;
+}
@@ -0,0 +1,207 @@
+package dev.danae.common.commands;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+
+final class SubcommandIndex<T>
+{
+  // Class that defines a node in the index
+  private static final class Node<T>
+  {
+    // The case-folded characters of the children of the node, in ascending order
+    private char[] keys = new char[0];
+
+    // The children of the node, in the same order as the keys
+    private Node<T>[] children = newArray(0);
+
+    // The registered name of the subcommand that ends at the node, or null if there is none
+    private String name = null;
+
+    // The value of the subcommand that ends at the node, or null if there is none
+    private T value = null;
+
+    // The number of subcommands that end at or below the node
+    private int count = 0;
+
+
+    // Return the child for the specified character, or null if there is none
+    private Node<T> child(char c)
+    {
+      var index = Arrays.binarySearch(this.keys, c);
+      return index >= 0 ? this.children[index] : null;
+    }
+
+    // Return the child for the specified character, creating it if there is none
+    private Node<T> childOrCreate(char c)
+    {
+      var index = Arrays.binarySearch(this.keys, c);
+      if (index >= 0)
+        return this.children[index];
+
+      var insertionIndex = -index - 1;
+      var node = new Node<T>();
+
+      var newKeys = new char[this.keys.length + 1];
+      System.arraycopy(this.keys, 0, newKeys, 0, insertionIndex);
+      System.arraycopy(this.keys, insertionIndex, newKeys, insertionIndex + 1, this.keys.length - insertionIndex);
+      newKeys[insertionIndex] = c;
+
+      Node<T>[] newChildren = newArray(this.children.length + 1);
+      System.arraycopy(this.children, 0, newChildren, 0, insertionIndex);
+      System.arraycopy(this.children, insertionIndex, newChildren, insertionIndex + 1, this.children.length - insertionIndex);
+      newChildren[insertionIndex] = node;
+
+      this.keys = newKeys;
+      this.children = newChildren;
+      return node;
+    }
+
+    // Return a new array of nodes with the specified length
+    @SuppressWarnings("unchecked")
+    private static <T> Node<T>[] newArray(int length)
+    {
+      return (Node<T>[])new Node<?>[length];
+    }
+
+    // Provide all subcommand nodes at or below the node to the consumer in case-folded order
+    private void forEach(Consumer<Node<T>> consumer)
+    {
+      if (this.value != null)
+        consumer.accept(this);
+      for (var child : this.children)
+      {
+        if (child.count > 0)
+          child.forEach(consumer);
+      }
+    }
+  }
+
+
+  // The root node of the index
+  private final Node<T> root = new Node<>();
+
+
+  // Return the number of subcommands in the index
+  public int size()
+  {
+    return this.root.count;
+  }
+
+  // Return if the index contains a subcommand with the specified name
+  public boolean containsKey(String name)
+  {
+    return this.get(name) != null;
+  }
+
+  // Return the subcommand with exactly the specified name, ignoring case
+  public T get(String name)
+  {
+    var node = this.find(name);
+    return node != null ? node.value : null;
+  }
+
+  // Return the subcommand with exactly the specified name, or the only subcommand that starts with the specified name, ignoring case
+  public T resolve(String prefix)
+  {
+    var node = this.find(prefix);
+    if (node == null)
+      return null;
+    if (node.value != null)
+      return node.value;
+    if (node.count != 1)
+      return null;
+
+    // Descend to the only subcommand below the node
+    while (node.value == null)
+    {
+      for (var child : node.children)
+      {
+        if (child.count > 0)
+        {
+          node = child;
+          break;
+        }
+      }
+    }
+    return node.value;
+  }
+
+  // Return the names of the subcommands that start with the specified prefix, ignoring case
+  public List<String> names(String prefix)
+  {
+    var node = this.find(prefix);
+    if (node == null || node.count == 0)
+      return List.of();
+
+    var names = new ArrayList<String>(node.count);
+    node.forEach(n -> names.add(n.name));
+    return names;
+  }
+
+  // Return all subcommands in the index
+  public List<T> values()
+  {
+    var values = new ArrayList<T>(this.root.count);
+    this.root.forEach(n -> values.add(n.value));
+    return values;
+  }
+
+
+  // Add a subcommand with the specified name to the index, replacing an existing subcommand with the same name
+  public void put(String name, T value)
+  {
+    if (name == null)
+      throw new NullPointerException("name must not be null");
+    if (value == null)
+      throw new NullPointerException("value must not be null");
+
+    var isNew = !this.containsKey(name);
+
+    var node = this.root;
+    if (isNew)
+      node.count ++;
+    for (var i = 0; i < name.length(); i ++)
+    {
+      node = node.childOrCreate(Character.toLowerCase(name.charAt(i)));
+      if (isNew)
+        node.count ++;
+    }
+
+    node.name = name;
+    node.value = value;
+  }
+
+  // Remove the subcommand with the specified name from the index
+  public void remove(String name)
+  {
+    if (!this.containsKey(name))
+      return;
+
+    var node = this.root;
+    node.count --;
+    for (var i = 0; i < name.length(); i ++)
+    {
+      node = node.child(Character.toLowerCase(name.charAt(i)));
+      node.count --;
+    }
+
+    node.name = null;
+    node.value = null;
+  }
+
+
+  // Return the node for the specified case-folded path, or null if there is none
+  private Node<T> find(String path)
+  {
+    if (path == null)
+      return null;
+
+    var node = this.root;
+    for (var i = 0; i < path.length() && node != null; i ++)
+      node = node.child(Character.toLowerCase(path.charAt(i)));
+    return node;
+  }
+}
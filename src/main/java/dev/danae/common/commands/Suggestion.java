@@ -1,7 +1,9 @@
 package dev.danae.common.commands;
 
+import java.util.List;
 import java.util.stream.Stream;
 import java.util.function.Consumer;
+import dev.danae.common.util.BoundedHeap;
 
 
 public class Suggestion implements Comparable<Suggestion>
@@ -67,6 +69,33 @@ public class Suggestion implements Comparable<Suggestion>
       .map(suggestion -> suggestion.getInput());
   }
 
+  // Find the best suggestions in the specified stream that match the specified query, keeping at most the specified number of suggestions
+  public static SuggestionResult findLimited(String query, Stream<String> suggestions, int limit)
+  {
+    if (limit < 0)
+      throw new IllegalArgumentException("limit must not be smaller than zero");
+
+    var hasQuery = query != null && !query.isEmpty();
+    var heap = new BoundedHeap<String>(limit);
+    var sequence = 0;
+
+    var iterator = suggestions.iterator();
+    while (iterator.hasNext())
+    {
+      var suggestion = iterator.next();
+      var startIndex = hasQuery ? suggestion.indexOf(query) : 0;
+      if (startIndex > -1)
+        heap.offer(suggestion, ((long)startIndex << 32) | sequence ++);
+    }
+    return new SuggestionResult(List.copyOf(heap.drain()), heap.getOfferedCount());
+  }
+
+  // Find the best suggestions in the specified stream that match the specified query, keeping at most the specified number of suggestions
+  public static Stream<String> find(String query, Stream<String> suggestions, int limit)
+  {
+    return findLimited(query, suggestions, limit).stream();
+  }
+
   // Find a query in the specified suggestion and provide it to the consumer if found
   private static void find(String query, String suggestion, Consumer<Suggestion> consumer)
   {
@@ -0,0 +1,213 @@
+package dev.danae.common.commands;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+
+
+public final class SuggestionCache implements Listener
+{
+  // Class that defines a cached suggestion query of a sender
+  private static final class Entry
+  {
+    // The arguments before the argument that is being completed
+    private final String[] path;
+
+    // The argument that is being completed
+    private final String prefix;
+
+    // The suggestions for the query
+    private final SuggestionResult result;
+
+    // Indicates if the suggestions match the argument that is being completed ignoring case
+    private final boolean ignoreCase;
+
+    // The generation of the cache when the entry was computed
+    private final int generation;
+
+    // The time in nanoseconds at which the entry expires
+    private final long expiresAt;
+
+
+    // Constructor
+    private Entry(String[] path, String prefix, SuggestionResult result, boolean ignoreCase, int generation, long expiresAt)
+    {
+      this.path = path;
+      this.prefix = prefix;
+      this.result = result;
+      this.ignoreCase = ignoreCase;
+      this.generation = generation;
+      this.expiresAt = expiresAt;
+    }
+
+
+    // Return if the entry has the same path as the arguments of the specified context
+    private boolean hasPath(CommandContext context)
+    {
+      if (this.path.length != context.getArgumentsCount() - 1)
+        return false;
+      for (var i = 0; i < this.path.length; i ++)
+      {
+        if (!this.path[i].equals(context.getArgument(i)))
+          return false;
+      }
+      return true;
+    }
+  }
+
+
+  // The time to live of the entries
+  private final long ttlNanos;
+
+  // The latest entry for each sender
+  private final Map<CommandSender, Entry> entries = new ConcurrentHashMap<>();
+
+  // The generation of the cache, which changes when the cache is invalidated
+  private final AtomicInteger generation = new AtomicInteger();
+
+  // Indicates if the cache is invalidated when players join or leave the server
+  private boolean invalidateOnPlayerChange = false;
+
+  // Indicates if the cache has been registered as a listener, which happens only once when it is shared between commands
+  private boolean eventsPublished = false;
+
+
+  // Constructor
+  public SuggestionCache(Duration ttl)
+  {
+    if (ttl.isNegative())
+      throw new IllegalArgumentException("ttl must not be negative");
+
+    this.ttlNanos = ttl.toNanos();
+  }
+
+
+  // Set if the cache is invalidated when players join or leave the server, for suggestions that include online players
+  public SuggestionCache setInvalidateOnPlayerChange(boolean invalidateOnPlayerChange)
+  {
+    this.invalidateOnPlayerChange = invalidateOnPlayerChange;
+    return this;
+  }
+
+
+  // Return the suggestions for the specified context, reusing the previous suggestions of the sender if the query is the same
+  public SuggestionResult get(CommandContext context, Function<CommandContext, SuggestionResult> suggestionFunction)
+  {
+    return this.get(context, suggestionFunction, false, false);
+  }
+
+  // Return the suggestions for the specified context, reusing the previous suggestions of the sender if the query is the same, or narrowing them if the query extends them, the suggestions are prefix-monotone as specified and they were not truncated, and matching the last argument ignoring case if specified
+  public SuggestionResult get(CommandContext context, Function<CommandContext, SuggestionResult> suggestionFunction, boolean narrowable, boolean ignoreCase)
+  {
+    if (!context.hasAtLeastArgumentsCount(1))
+      return suggestionFunction.apply(context);
+
+    var sender = context.getSender();
+    var prefix = context.getLastArgument(0);
+    var now = System.nanoTime();
+    var generation = this.generation.get();
+
+    // Check if there is a cached entry that can answer the query
+    var entry = this.entries.get(sender);
+    if (entry != null && entry.generation == generation && now - entry.expiresAt < 0 && entry.ignoreCase == ignoreCase && prefix.regionMatches(ignoreCase, 0, entry.prefix, 0, entry.prefix.length()) && entry.hasPath(context))
+    {
+      if (prefix.length() == entry.prefix.length())
+        return entry.result;
+
+      // Narrowing is only valid if the suggestions for a longer query are those for the shorter query that contain it, and a truncated result would miss the suggestions that were cut off
+      if (narrowable && !entry.result.isTruncated())
+      {
+        var suggestions = narrow(entry.result.getSuggestions(), prefix, ignoreCase);
+        var result = new SuggestionResult(suggestions, suggestions.size());
+        this.entries.put(sender, new Entry(entry.path, prefix, result, ignoreCase, generation, entry.expiresAt));
+        return result;
+      }
+    }
+
+    // Otherwise compute the suggestions and cache them
+    var result = suggestionFunction.apply(context);
+    var path = Arrays.copyOf(context.getArguments(), context.getArgumentsCount() - 1);
+    this.entries.put(sender, new Entry(path, prefix, result, ignoreCase, generation, now + this.ttlNanos));
+    return result;
+  }
+
+
+  // Invalidate all entries in the cache
+  public void invalidate()
+  {
+    this.generation.incrementAndGet();
+    this.entries.clear();
+  }
+
+  // Invalidate the entry of the specified sender
+  public void invalidate(CommandSender sender)
+  {
+    this.entries.remove(sender);
+  }
+
+
+  // Register the cache as a listener for the specified plugin if it has not been registered yet
+  public void publishEvents(Plugin plugin)
+  {
+    if (this.eventsPublished)
+      return;
+
+    Bukkit.getPluginManager().registerEvents(this, plugin);
+    this.eventsPublished = true;
+  }
+
+  // Event handler for when a player joins the server
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onPlayerJoin(PlayerJoinEvent event)
+  {
+    if (this.invalidateOnPlayerChange)
+      this.invalidate();
+  }
+
+  // Event handler for when a player leaves the server
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onPlayerQuit(PlayerQuitEvent event)
+  {
+    if (this.invalidateOnPlayerChange)
+      this.invalidate();
+    else
+      this.invalidate(event.getPlayer());
+  }
+
+
+  // Narrow the specified suggestions to those that contain the specified query, ordered by the position of the query like Suggestion.find, and folding the case of both sides if specified like a case-insensitive SuggestionIndex
+  private static List<String> narrow(List<String> suggestions, String query, boolean ignoreCase)
+  {
+    if (ignoreCase)
+      query = query.toLowerCase();
+
+    var keys = new long[suggestions.size()];
+    var count = 0;
+    for (var i = 0; i < suggestions.size(); i ++)
+    {
+      var suggestion = suggestions.get(i);
+      var startIndex = (ignoreCase ? suggestion.toLowerCase() : suggestion).indexOf(query);
+      if (startIndex > -1)
+        keys[count ++] = ((long)startIndex << 32) | i;
+    }
+    Arrays.sort(keys, 0, count);
+
+    var narrowed = new ArrayList<String>(count);
+    for (var i = 0; i < count; i ++)
+      narrowed.add(suggestions.get((int)keys[i]));
+    return List.copyOf(narrowed);
+  }
+}
@@ -0,0 +1,190 @@
+package dev.danae.common.commands;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+
+public final class SuggestionIndex implements SuggestionSource
+{
+  // The candidates of the index, in their original order
+  private final String[] candidates;
+  private final List<String> candidateList;
+
+  // The keys of the candidates that are matched against, which are case-folded if the index ignores case
+  private final String[] keys;
+
+  // Indicates if the index ignores case
+  private final boolean ignoreCase;
+
+  // The identifiers of the candidates that are long enough to have a suffix at each position, sorted by that suffix
+  private final int[][] suffixes;
+
+
+  // Constructor
+  private SuggestionIndex(String[] candidates, boolean ignoreCase)
+  {
+    this.candidates = candidates;
+    this.candidateList = List.of(candidates);
+    this.ignoreCase = ignoreCase;
+
+    this.keys = new String[candidates.length];
+    var maxLength = 0;
+    for (var i = 0; i < candidates.length; i ++)
+    {
+      this.keys[i] = ignoreCase ? candidates[i].toLowerCase() : candidates[i];
+      maxLength = Math.max(maxLength, this.keys[i].length());
+    }
+
+    this.suffixes = new int[maxLength][];
+    for (var position = 0; position < maxLength; position ++)
+    {
+      final var p = position;
+      this.suffixes[position] = IntStream.range(0, this.keys.length)
+        .filter(id -> this.keys[id].length() > p)
+        .boxed()
+        .sorted((a, b) -> compareSuffixes(this.keys[a], this.keys[b], p))
+        .mapToInt(id -> id)
+        .toArray();
+    }
+  }
+
+  // Create an index over the specified candidates
+  public static SuggestionIndex of(Collection<String> candidates, boolean ignoreCase)
+  {
+    return new SuggestionIndex(candidates.stream().distinct().toArray(String[]::new), ignoreCase);
+  }
+
+  // Create an index over the specified candidates
+  public static SuggestionIndex of(Stream<String> candidates, boolean ignoreCase)
+  {
+    return new SuggestionIndex(candidates.distinct().toArray(String[]::new), ignoreCase);
+  }
+
+  // Create a case-sensitive index over the specified candidates
+  public static SuggestionIndex of(Collection<String> candidates)
+  {
+    return of(candidates, false);
+  }
+
+  // Create a case-sensitive index over the specified candidates
+  public static SuggestionIndex of(Stream<String> candidates)
+  {
+    return of(candidates, false);
+  }
+
+
+  // Return the number of candidates in the index
+  public int size()
+  {
+    return this.candidates.length;
+  }
+
+  // Return if the index ignores case
+  public boolean isIgnoreCase()
+  {
+    return this.ignoreCase;
+  }
+
+  // Return all candidates in the index in their original order
+  public List<String> candidates()
+  {
+    return this.candidateList;
+  }
+
+
+  // Find the candidates that contain the specified query, ordered by the position of the query in the candidate, keeping at most the specified number of candidates
+  public SuggestionResult findLimited(String query, int limit)
+  {
+    if (limit < 0)
+      throw new IllegalArgumentException("limit must not be smaller than zero");
+    if (query == null || query.isEmpty())
+      return new SuggestionResult(this.candidateList.subList(0, Math.min(limit, this.candidates.length)), this.candidates.length);
+    if (this.ignoreCase)
+      query = query.toLowerCase();
+
+    var results = new ArrayList<String>(Math.min(limit, this.candidates.length));
+    var totalCount = 0;
+    var found = new BitSet(this.candidates.length);
+    for (var position = 0; position <= this.suffixes.length - query.length(); position ++)
+    {
+      var ids = this.suffixes[position];
+      for (var i = this.lowerBound(ids, position, query); i < ids.length && this.keys[ids[i]].startsWith(query, position); i ++)
+      {
+        // Skip candidates that already matched at an earlier position
+        var id = ids[i];
+        if (found.get(id))
+          continue;
+
+        found.set(id);
+        if (totalCount ++ < limit)
+          results.add(this.candidates[id]);
+      }
+    }
+    return new SuggestionResult(results, totalCount);
+  }
+
+  // Find the candidates that contain the specified query, ordered by the position of the query in the candidate, keeping at most the specified number of candidates
+  public Stream<String> find(String query, int limit)
+  {
+    return this.findLimited(query, limit).stream();
+  }
+
+  // Find all candidates that contain the specified query, ordered by the position of the query in the candidate
+  public List<String> findList(String query)
+  {
+    return this.findLimited(query, Integer.MAX_VALUE).getSuggestions();
+  }
+
+  // Find all candidates that contain the specified query, ordered by the position of the query in the candidate
+  public Stream<String> find(String query)
+  {
+    return this.findList(query).stream();
+  }
+
+
+  // Return the index of the first identifier in the specified array whose suffix at the position is not less than the query
+  private int lowerBound(int[] ids, int position, String query)
+  {
+    var low = 0;
+    var high = ids.length;
+    while (low < high)
+    {
+      var mid = (low + high) >>> 1;
+      if (compareSuffixTo(this.keys[ids[mid]], position, query) < 0)
+        low = mid + 1;
+      else
+        high = mid;
+    }
+    return low;
+  }
+
+  // Compare the suffixes of two strings at the specified position
+  private static int compareSuffixes(String a, String b, int position)
+  {
+    var length = Math.min(a.length(), b.length()) - position;
+    for (var i = 0; i < length; i ++)
+    {
+      var comparison = Character.compare(a.charAt(position + i), b.charAt(position + i));
+      if (comparison != 0)
+        return comparison;
+    }
+    return Integer.compare(a.length(), b.length());
+  }
+
+  // Compare the suffix of a string at the specified position to the prefix of the query with the same length
+  private static int compareSuffixTo(String string, int position, String query)
+  {
+    var length = Math.min(string.length() - position, query.length());
+    for (var i = 0; i < length; i ++)
+    {
+      var comparison = Character.compare(string.charAt(position + i), query.charAt(i));
+      if (comparison != 0)
+        return comparison;
+    }
+    return Integer.compare(string.length() - position, query.length());
+  }
+}
@@ -0,0 +1,53 @@
+package dev.danae.common.commands;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+
+public final class SuggestionResult
+{
+  // The suggestions of the result
+  private final List<String> suggestions;
+
+  // The total number of suggestions that matched, including those that were truncated
+  private final int totalCount;
+
+
+  // Constructor
+  public SuggestionResult(List<String> suggestions, int totalCount)
+  {
+    this.suggestions = suggestions;
+    this.totalCount = totalCount;
+  }
+
+
+  // Return the suggestions of the result
+  public List<String> getSuggestions()
+  {
+    return this.suggestions;
+  }
+
+  // Return the suggestions of the result as a stream
+  public Stream<String> stream()
+  {
+    return this.suggestions.stream();
+  }
+
+  // Return the total number of suggestions that matched, including those that were truncated
+  public int getTotalCount()
+  {
+    return this.totalCount;
+  }
+
+  // Return the number of suggestions that were truncated
+  public int getRemainingCount()
+  {
+    return this.totalCount - this.suggestions.size();
+  }
+
+  // Return if suggestions were truncated
+  public boolean isTruncated()
+  {
+    return this.getRemainingCount() > 0;
+  }
+}
@@ -0,0 +1,64 @@
+package dev.danae.common.commands;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+
+@FunctionalInterface
+public interface SuggestionSource
+{
+  // Find the suggestions that contain the specified query, ordered by the position of the query in the suggestion, keeping at most the specified number of suggestions
+  public SuggestionResult findLimited(String query, int limit);
+
+
+  // Find the suggestions that contain the specified query, ordered by the position of the query in the suggestion, keeping at most the specified number of suggestions
+  public default Stream<String> find(String query, int limit)
+  {
+    return this.findLimited(query, limit).stream();
+  }
+
+  // Find all suggestions that contain the specified query, ordered by the position of the query in the suggestion
+  public default Stream<String> find(String query)
+  {
+    return this.find(query, Integer.MAX_VALUE);
+  }
+
+
+  // Return a suggestion source without suggestions
+  public static SuggestionSource empty()
+  {
+    return (query, limit) -> new SuggestionResult(List.of(), 0);
+  }
+
+  // Return a static suggestion source over the specified candidates, which are indexed once
+  public static SuggestionSource of(Collection<String> candidates)
+  {
+    return SuggestionIndex.of(candidates);
+  }
+
+  // Return a static suggestion source over the specified candidates, which are collected and indexed once
+  public static SuggestionSource of(Stream<String> candidates)
+  {
+    return SuggestionIndex.of(candidates);
+  }
+
+  // Return a static suggestion source over the specified candidates, which are indexed once
+  public static SuggestionSource of(String... candidates)
+  {
+    return SuggestionIndex.of(Stream.of(candidates));
+  }
+
+  // Return a suggestion source that requests fresh candidates from the specified supplier for every query, for candidates that change all the time
+  public static SuggestionSource supplied(Supplier<? extends Stream<String>> supplier)
+  {
+    return (query, limit) -> Suggestion.findLimited(query, supplier.get(), limit);
+  }
+
+  // Return a suggestion source that indexes the candidates of the specified supplier until it is invalidated, for candidates that change on known events
+  public static CachedSuggestionSource cached(Supplier<? extends Stream<String>> supplier)
+  {
+    return new CachedSuggestionSource(supplier);
+  }
+}
@@ -0,0 +1,15 @@
+package dev.danae.common.commands.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.PARAMETER)
+public @interface Argument
+{
+  // The name of the field or method of the command handler class that returns the argument type, where a method may take the command context as its only parameter
+  public String value();
+}
@@ -0,0 +1,18 @@
+package dev.danae.common.commands.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface CommandHandler
+{
+  // The required permissions to execute the command group
+  public String[] permissions() default {};
+
+  // Indicates if subcommands can be resolved by a unique prefix of their name
+  public boolean uniquePrefixResolution() default false;
+}
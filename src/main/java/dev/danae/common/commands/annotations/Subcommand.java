@@ -0,0 +1,21 @@
+package dev.danae.common.commands.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.METHOD)
+public @interface Subcommand
+{
+  // The name of the subcommand, or an empty string for the subcommand for when no other subcommand has been specified
+  public String value();
+
+  // The required permissions to execute the subcommand
+  public String[] permissions() default {};
+
+  // Indicates if the subcommand is handled asynchronously from the main thread
+  public boolean async() default false;
+}
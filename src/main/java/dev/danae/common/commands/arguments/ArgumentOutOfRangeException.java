@@ -0,0 +1,56 @@
+package dev.danae.common.commands.arguments;
+
+
+public class ArgumentOutOfRangeException extends ArgumentException
+{
+  // The message format for the exception
+  private static final String MESSAGE_FORMAT = "\"%s\" is an invalid %s value, expected a value between %s and %s";
+
+
+  // The expected type of the argument
+  private final ArgumentType<?> expectedType;
+
+  // The actual value of the argument
+  private final String actualValue;
+
+  // The range of the argument
+  private final Number min;
+  private final Number max;
+
+
+  // Constructor for an expected type, actual value and range
+  public ArgumentOutOfRangeException(ArgumentType<?> expectedType, String actualValue, Number min, Number max)
+  {
+    super(String.format(MESSAGE_FORMAT, actualValue, expectedType.getTypeName(), min, max));
+
+    this.expectedType = expectedType;
+    this.actualValue = actualValue;
+    this.min = min;
+    this.max = max;
+  }
+
+
+  // Return the expected type of the argument
+  public ArgumentType<?> getExpectedType()
+  {
+    return this.expectedType;
+  }
+
+  // Return the actual value of the argument
+  public String getActualValue()
+  {
+    return this.actualValue;
+  }
+
+  // Return the minimum value of the argument
+  public Number getMin()
+  {
+    return this.min;
+  }
+
+  // Return the maximum value of the argument
+  public Number getMax()
+  {
+    return this.max;
+  }
+}
@@ -0,0 +1,100 @@
+package dev.danae.common.commands.arguments;
+
+import java.util.Objects;
+
+
+public final class ArgumentSlice implements CharSequence
+{
+  // The source of the slice
+  private final CharSequence source;
+
+  // The range of the slice in the source
+  private final int start;
+  private final int end;
+
+  // The string representation of the slice, which is created when it is first requested
+  private String string = null;
+
+
+  // Constructor
+  public ArgumentSlice(CharSequence source, int start, int end)
+  {
+    Objects.checkFromToIndex(start, end, source.length());
+
+    this.source = source;
+    this.start = start;
+    this.end = end;
+  }
+
+  // Constructor for a whole string
+  public ArgumentSlice(String source)
+  {
+    this(source, 0, source.length());
+    this.string = source;
+  }
+
+
+  // Return the source of the slice
+  public CharSequence getSource()
+  {
+    return this.source;
+  }
+
+  // Return the start of the slice in the source
+  public int getStart()
+  {
+    return this.start;
+  }
+
+  // Return the end of the slice in the source
+  public int getEnd()
+  {
+    return this.end;
+  }
+
+
+  // Return the length of the slice
+  @Override
+  public int length()
+  {
+    return this.end - this.start;
+  }
+
+  // Return the character at the specified index of the slice
+  @Override
+  public char charAt(int index)
+  {
+    Objects.checkIndex(index, this.length());
+    return this.source.charAt(this.start + index);
+  }
+
+  // Return a slice of the slice within the specified range
+  @Override
+  public ArgumentSlice subSequence(int start, int end)
+  {
+    Objects.checkFromToIndex(start, end, this.length());
+    return new ArgumentSlice(this.source, this.start + start, this.start + end);
+  }
+
+  // Return if the slice has the same characters as the specified character sequence
+  public boolean contentEquals(CharSequence other)
+  {
+    if (other.length() != this.length())
+      return false;
+    for (var i = 0; i < this.length(); i ++)
+    {
+      if (this.source.charAt(this.start + i) != other.charAt(i))
+        return false;
+    }
+    return true;
+  }
+
+  // Return the string representation of the slice
+  @Override
+  public String toString()
+  {
+    if (this.string == null)
+      this.string = this.source.subSequence(this.start, this.end).toString();
+    return this.string;
+  }
+}
@@ -4,6 +4,7 @@ import java.util.EnumSet;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 import dev.danae.common.commands.CommandContext;
+import dev.danae.common.commands.SuggestionSource;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
 import org.bukkit.entity.Player;
@@ -32,32 +33,65 @@ public interface ArgumentType<T>
   public Stream<String> suggest(CommandContext context, int argumentIndex);
   
 
-  // Parse an argument from the specified scanner, or return the default value if parsing fails
-  public default T parse(Scanner scanner, T defaultValue) throws ArgumentException
+  // Return if suggestions for the argument type must be computed on the main thread
+  public default boolean requiresMainThread()
+  {
+    return false;
+  }
+
+  // Return a copy of the specified parsed argument that a memo can hand out again, which is the argument itself if it is immutable
+  public default T copyParsed(T value)
   {
+    return value;
+  }
+
+
+  // Try to parse an argument from the specified scanner without throwing, only advancing the scanner if parsing succeeds
+  public default ParseResult<T> tryParse(Scanner scanner)
+  {
+    var mark = scanner.mark();
     try
     {
-      return this.parse(scanner);
+      return ParseResult.success(this.parse(scanner));
     }
     catch (ArgumentException ex)
     {
-      return defaultValue;
+      scanner.reset(mark);
+      return ParseResult.failure(ParseFailure.of(ex));
     }
   }
 
+  // Parse an argument from the specified scanner, or return the default value if parsing fails, reusing an earlier result if the scanner memoizes parse results
+  public default T parse(Scanner scanner, T defaultValue) throws ArgumentException
+  {
+    return scanner.parse(this, defaultValue);
+  }
+
 
   // Return a string argument type
-  public static PatternArgumentType<String> getStringArgumentType(Stream<String> suggestions)
+  public static PatternArgumentType<String> getStringArgumentType(SuggestionSource suggestions)
   {
     return PatternArgumentType.ofMatch(String.class, "string", null, (s, t) -> s, suggestions);
   }
 
+  // Return a string argument type, collecting the suggestions once
+  public static PatternArgumentType<String> getStringArgumentType(Stream<String> suggestions)
+  {
+    return getStringArgumentType(SuggestionSource.of(suggestions));
+  }
+
   // Return an identifier argument type
-  public static PatternArgumentType<String> getIdentifierArgumentType(Stream<String> suggestions)
+  public static PatternArgumentType<String> getIdentifierArgumentType(SuggestionSource suggestions)
   {
     return PatternArgumentType.ofMatch(String.class, "identifier", IDENTIFIER_PATTERN, (s, t) -> s, suggestions);
   }
 
+  // Return an identifier argument type, collecting the suggestions once
+  public static PatternArgumentType<String> getIdentifierArgumentType(Stream<String> suggestions)
+  {
+    return getIdentifierArgumentType(SuggestionSource.of(suggestions));
+  }
+
   // Return an int argument type
   public static PatternArgumentType<Integer> getIntArgumentType(int radix, Stream<Integer> suggestions)
   {
@@ -106,6 +140,48 @@ public interface ArgumentType<T>
     return getUnsignedLongArgumentType(10, suggestions);
   }
 
+  // Return an int argument type with the specified range, which parses without a regular expression
+  public static IntArgumentType getIntArgumentType(int min, int max, SuggestionSource suggestions)
+  {
+    return new IntArgumentType(min, max, suggestions);
+  }
+
+  // Return an int argument type with the specified range, which parses without a regular expression, collecting the suggestions in the range once
+  public static IntArgumentType getIntArgumentType(int min, int max, Stream<Integer> suggestions)
+  {
+    return getIntArgumentType(min, max, SuggestionSource.of(suggestions
+      .filter(v -> v >= min && v <= max)
+      .map(v -> v.toString())));
+  }
+
+  // Return a long argument type with the specified range, which parses without a regular expression
+  public static LongArgumentType getLongArgumentType(long min, long max, SuggestionSource suggestions)
+  {
+    return new LongArgumentType(min, max, suggestions);
+  }
+
+  // Return a long argument type with the specified range, which parses without a regular expression, collecting the suggestions in the range once
+  public static LongArgumentType getLongArgumentType(long min, long max, Stream<Long> suggestions)
+  {
+    return getLongArgumentType(min, max, SuggestionSource.of(suggestions
+      .filter(v -> v >= min && v <= max)
+      .map(v -> v.toString())));
+  }
+
+  // Return a double argument type with the specified range, which parses without a regular expression
+  public static DoubleArgumentType getDoubleArgumentType(double min, double max, SuggestionSource suggestions)
+  {
+    return new DoubleArgumentType(min, max, suggestions);
+  }
+
+  // Return a double argument type with the specified range, which parses without a regular expression, collecting the suggestions in the range once
+  public static DoubleArgumentType getDoubleArgumentType(double min, double max, Stream<Double> suggestions)
+  {
+    return getDoubleArgumentType(min, max, SuggestionSource.of(suggestions
+      .filter(v -> v >= min && v <= max)
+      .map(v -> v.toString())));
+  }
+
   // Return a float argument type
   public static PatternArgumentType<Float> getFloatArgumentType(Stream<Float> suggestions)
   {
@@ -138,9 +214,15 @@ public interface ArgumentType<T>
   }
   
   // Return a namespaced key argument type
+  public static StringArgumentType<NamespacedKey> getNamespacedKeyArgumentType(SuggestionSource suggestions)
+  {
+    return new NamespacedKeyArgumentType(suggestions);
+  }
+
+  // Return a namespaced key argument type, collecting the suggestions once
   public static StringArgumentType<NamespacedKey> getNamespacedKeyArgumentType(Stream<NamespacedKey> suggestions)
   {
-    return new NamespacedKeyArgumentType(suggestions.map(k -> k.toString()));
+    return getNamespacedKeyArgumentType(SuggestionSource.of(suggestions.map(k -> k.toString())));
   }
   
   // Return a player argument type
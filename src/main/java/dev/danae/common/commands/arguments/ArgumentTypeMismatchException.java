@@ -4,7 +4,7 @@ package dev.danae.common.commands.arguments;
 public class ArgumentTypeMismatchException extends ArgumentException
 {
   // The message format for the exception
-  private static final String MESSAGE_FORMAT = "\"%1$s\" is an invalid %0$s value";
+  private static final String MESSAGE_FORMAT = "\"%2$s\" is an invalid %1$s value";
 
 
   // The expected type of the argument
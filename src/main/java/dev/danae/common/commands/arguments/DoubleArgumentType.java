@@ -0,0 +1,69 @@
+package dev.danae.common.commands.arguments;
+
+import dev.danae.common.commands.SuggestionSource;
+
+
+public final class DoubleArgumentType extends NumberArgumentType<Double>
+{
+  // The range of the argument type
+  private final double min;
+  private final double max;
+
+
+  // Constructor
+  DoubleArgumentType(double min, double max, SuggestionSource suggestions)
+  {
+    super(Double.class, "float", min, max, suggestions);
+
+    this.min = min;
+    this.max = max;
+  }
+
+
+  // Return the minimum value of the argument type
+  public double getMin()
+  {
+    return this.min;
+  }
+
+  // Return the maximum value of the argument type
+  public double getMax()
+  {
+    return this.max;
+  }
+
+
+  // Parse a double from the specified input
+  public double parseDouble(CharSequence input) throws ArgumentException
+  {
+    return NumberParser.parseDouble(this, input, this.min, this.max);
+  }
+
+  // Parse a double from the specified scanner, only advancing the scanner if parsing succeeds
+  public double parseDouble(Scanner scanner) throws ArgumentException
+  {
+    var mark = scanner.mark();
+    try
+    {
+      return this.parseDouble(this.take(scanner));
+    }
+    catch (ArgumentException ex)
+    {
+      throw restore(scanner, mark, ex);
+    }
+  }
+
+  // Parse a number in the range of the argument type from the specified input
+  @Override
+  Double parseNumber(CharSequence input) throws ArgumentException
+  {
+    return this.parseDouble(input);
+  }
+
+  // Try to parse the argument from the specified string without throwing
+  @Override
+  public ParseResult<Double> tryParseFromString(String input)
+  {
+    return NumberParser.tryParseDouble(this, input, this.min, this.max);
+  }
+}
@@ -4,7 +4,7 @@ import java.util.Arrays;
 import java.util.regex.MatchResult;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
-import dev.danae.common.commands.Suggestion;
+import dev.danae.common.commands.SuggestionIndex;
 
 
 final class EnumArgumentType<E extends Enum<E>> implements PatternArgumentType<E>
@@ -12,11 +12,16 @@ final class EnumArgumentType<E extends Enum<E>> implements PatternArgumentType<E
   // The enum type for the argument type
   private final Class<E> type;
 
+  // The suggestion index for the argument type
+  private final SuggestionIndex suggestions;
+
 
   // Constructor
   public EnumArgumentType(Class<E> type)
   {
     this.type = type;
+    this.suggestions = SuggestionIndex.of(Arrays.stream(type.getEnumConstants())
+      .map(e -> e.name().toLowerCase()));
   }
 
 
@@ -61,7 +66,6 @@ final class EnumArgumentType<E extends Enum<E>> implements PatternArgumentType<E
   @Override
   public Stream<String> suggestFromString(String input)
   {
-    return Suggestion.find(input, Arrays.stream(this.type.getEnumConstants())
-      .map(e -> e.name().toLowerCase()));
+    return this.suggestions.find(input);
   }
 }
@@ -8,7 +8,7 @@ import java.util.stream.Collector;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import com.google.common.reflect.TypeToken;
-import dev.danae.common.commands.Suggestion;
+import dev.danae.common.commands.SuggestionIndex;
 
 
 final class EnumSetArgumentType<E extends Enum<E>> implements PatternListArgumentType<E, EnumSet<E>>
@@ -16,6 +16,9 @@ final class EnumSetArgumentType<E extends Enum<E>> implements PatternListArgumen
   // The enum type for the argument type
   private final Class<E> type;
 
+  // The suggestion index for the argument type
+  private final SuggestionIndex suggestions;
+
   // The delimiter for the argument type
   private final String delimiter;
 
@@ -24,6 +27,8 @@ final class EnumSetArgumentType<E extends Enum<E>> implements PatternListArgumen
   public EnumSetArgumentType(Class<E> type, String delimiter)
   {
     this.type = type;
+    this.suggestions = SuggestionIndex.of(Arrays.stream(type.getEnumConstants())
+      .map(e -> e.name().toLowerCase()));
     this.delimiter = delimiter;
   }
   
@@ -83,7 +88,6 @@ final class EnumSetArgumentType<E extends Enum<E>> implements PatternListArgumen
   @Override
   public Stream<String> suggestFromStringList(String input)
   {
-    return Suggestion.find(input, Arrays.stream(this.type.getEnumConstants())
-      .map(e -> e.name().toLowerCase()));
+    return this.suggestions.find(input);
   }
 }
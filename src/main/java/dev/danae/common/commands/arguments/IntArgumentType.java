@@ -0,0 +1,69 @@
+package dev.danae.common.commands.arguments;
+
+import dev.danae.common.commands.SuggestionSource;
+
+
+public final class IntArgumentType extends NumberArgumentType<Integer>
+{
+  // The range of the argument type
+  private final int min;
+  private final int max;
+
+
+  // Constructor
+  IntArgumentType(int min, int max, SuggestionSource suggestions)
+  {
+    super(Integer.class, "integer", min, max, suggestions);
+
+    this.min = min;
+    this.max = max;
+  }
+
+
+  // Return the minimum value of the argument type
+  public int getMin()
+  {
+    return this.min;
+  }
+
+  // Return the maximum value of the argument type
+  public int getMax()
+  {
+    return this.max;
+  }
+
+
+  // Parse an int from the specified input
+  public int parseInt(CharSequence input) throws ArgumentException
+  {
+    return (int)NumberParser.parseLong(this, input, this.min, this.max);
+  }
+
+  // Parse an int from the specified scanner, only advancing the scanner if parsing succeeds
+  public int parseInt(Scanner scanner) throws ArgumentException
+  {
+    var mark = scanner.mark();
+    try
+    {
+      return this.parseInt(this.take(scanner));
+    }
+    catch (ArgumentException ex)
+    {
+      throw restore(scanner, mark, ex);
+    }
+  }
+
+  // Parse a number in the range of the argument type from the specified input
+  @Override
+  Integer parseNumber(CharSequence input) throws ArgumentException
+  {
+    return this.parseInt(input);
+  }
+
+  // Try to parse the argument from the specified string without throwing
+  @Override
+  public ParseResult<Integer> tryParseFromString(String input)
+  {
+    return NumberParser.tryParseInt(this, input, this.min, this.max);
+  }
+}
@@ -6,7 +6,7 @@ import org.bukkit.NamespacedKey;
 public class LocationAliasNotFoundException extends ArgumentException
 {
   // The message format for the exception
-  private static final String MESSAGE_FORMAT = "No block of material %0$s could be found in a radius of %1$d blocks";
+  private static final String MESSAGE_FORMAT = "No location with alias %s could be found";
 
 
   // The alias of the argument
@@ -4,8 +4,10 @@ import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.Map;
 import java.util.function.Function;
+import dev.danae.common.util.MaterialIndex;
 import org.bukkit.Location;
 import org.bukkit.NamespacedKey;
+import org.bukkit.plugin.Plugin;
 
 
 public final class LocationArgumentTypeBuilder implements Function<Location, ArgumentType<Location>>
@@ -19,26 +21,36 @@ public final class LocationArgumentTypeBuilder implements Function<Location, Arg
   // The aliases for the argument type
   private Map<NamespacedKey, Location> aliases = Map.of();
 
+  // The plugin that captures chunk snapshots on the main thread when a block location is parsed from another thread, or null if blocks are searched on the calling thread
+  private Plugin plugin = null;
+
+  // The index that answers block locations for indexed materials, or null if blocks are always searched in the cuboid around the origin
+  private MaterialIndex materialIndex = null;
+
+  // The compiled parser for the builder, which is created when it is first requested
+  private volatile LocationParser parser = null;
 
 
   // Constructor
-  private LocationArgumentTypeBuilder(EnumSet<LocationFormat> allowedFormats, int blockSearchRadius, Map<NamespacedKey, Location> aliases)
+  private LocationArgumentTypeBuilder(EnumSet<LocationFormat> allowedFormats, int blockSearchRadius, Map<NamespacedKey, Location> aliases, Plugin plugin, MaterialIndex materialIndex)
   {
     this.allowedFormats = allowedFormats;
     this.blockSearchRadius = blockSearchRadius;
     this.aliases = aliases;
+    this.plugin = plugin;
+    this.materialIndex = materialIndex;
   }
 
   // Constructor for copying an existing builder
   private LocationArgumentTypeBuilder(LocationArgumentTypeBuilder builder)
   {
-    this(EnumSet.copyOf(builder.allowedFormats), builder.blockSearchRadius, Map.copyOf(builder.aliases));
+    this(EnumSet.copyOf(builder.allowedFormats), builder.blockSearchRadius, Map.copyOf(builder.aliases), builder.plugin, builder.materialIndex);
   }
 
   // Constructor for creating a new builder
   public LocationArgumentTypeBuilder()
   {
-    this(EnumSet.of(LocationFormat.NUMERIC), 10, Map.of());
+    this(EnumSet.of(LocationFormat.NUMERIC), 10, Map.of(), null, null);
   }
   
 
@@ -70,15 +82,40 @@ public final class LocationArgumentTypeBuilder implements Function<Location, Arg
   public LocationArgumentTypeBuilder withAliases(Map<NamespacedKey, Location> aliases)
   {
     var newBuilder = new LocationArgumentTypeBuilder(this);
-    newBuilder.aliases = aliases;
+    newBuilder.aliases = Map.copyOf(aliases);
     return newBuilder;
   }
 
+  // Set the plugin of the builder, which captures chunk snapshots on the main thread so that block locations parsed by asynchronous commands are searched off the main thread
+  public LocationArgumentTypeBuilder withPlugin(Plugin plugin)
+  {
+    var newBuilder = new LocationArgumentTypeBuilder(this);
+    newBuilder.plugin = plugin;
+    return newBuilder;
+  }
 
-  // Build the location argument type
+  // Set the material index of the builder, which answers block locations for indexed materials without searching the cuboid around the origin
+  public LocationArgumentTypeBuilder withMaterialIndex(MaterialIndex materialIndex)
+  {
+    var newBuilder = new LocationArgumentTypeBuilder(this);
+    newBuilder.materialIndex = materialIndex;
+    return newBuilder;
+  }
+
+
+  // Build the location argument type for the specified origin, which shares the compiled parser of the builder
   public ArgumentType<Location> build(Location origin)
   {
-    return new LocationArgumentType(origin, this.allowedFormats, this.blockSearchRadius, this.aliases);
+    return new LocationArgumentType(this.compile(), origin);
+  }
+
+  // Return the compiled parser for the builder, which does not depend on an origin
+  private LocationParser compile()
+  {
+    var parser = this.parser;
+    if (parser == null)
+      this.parser = parser = new LocationParser(this.allowedFormats, this.blockSearchRadius, this.aliases, this.plugin, this.materialIndex);
+    return parser;
   }
 
   // Apply the builder as a function
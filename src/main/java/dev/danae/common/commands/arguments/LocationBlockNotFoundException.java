@@ -6,7 +6,7 @@ import org.bukkit.Material;
 public class LocationBlockNotFoundException extends ArgumentException
 {
   // The message format for the exception
-  private static final String MESSAGE_FORMAT = "No block of material %0$s could be found in a radius of %1$d blocks";
+  private static final String MESSAGE_FORMAT = "No block of material %s could be found in a radius of %d blocks";
 
 
   // The material of the argument
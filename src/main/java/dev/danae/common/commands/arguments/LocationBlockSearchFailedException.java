@@ -0,0 +1,38 @@
+package dev.danae.common.commands.arguments;
+
+import org.bukkit.Material;
+
+
+public class LocationBlockSearchFailedException extends ArgumentException
+{
+  // The message format for the exception
+  private static final String MESSAGE_FORMAT = "The search for a block of material %s could not be completed";
+
+
+  // The material of the argument
+  private final Material material;
+
+
+  // Constructor for a material and cause
+  public LocationBlockSearchFailedException(Material material, Throwable cause)
+  {
+    super(String.format(MESSAGE_FORMAT, material.toString().toLowerCase()), cause);
+
+    this.material = material;
+  }
+
+  // Constructor for a material
+  public LocationBlockSearchFailedException(Material material)
+  {
+    super(String.format(MESSAGE_FORMAT, material.toString().toLowerCase()));
+
+    this.material = material;
+  }
+
+
+  // Return the material of the argument
+  public Material getMaterial()
+  {
+    return this.material;
+  }
+}
@@ -0,0 +1,133 @@
+package dev.danae.common.commands.arguments;
+
+
+final class LocationLexer
+{
+  // Enum that defines the kind of a location token
+  public enum TokenKind
+  {
+    ABSOLUTE,
+    RELATIVE,
+    LOCAL,
+    CURRENT,
+    PLAYER,
+    BLOCK,
+    ALIAS,
+    INVALID,
+  }
+
+
+  // The minimum and maximum length of a player name
+  private static final int MIN_PLAYER_NAME_LENGTH = 2;
+  private static final int MAX_PLAYER_NAME_LENGTH = 16;
+
+
+  // Private constructor
+  private LocationLexer()
+  {
+  }
+
+
+  // Return the kind of the specified coordinate token of a numeric location, which is either absolute, relative (~n) or local (^n)
+  public static TokenKind classifyCoordinate(CharSequence token)
+  {
+    if (token.isEmpty())
+      return TokenKind.INVALID;
+
+    return switch (token.charAt(0))
+    {
+      case '~' -> TokenKind.RELATIVE;
+      case '^' -> TokenKind.LOCAL;
+      default -> TokenKind.ABSOLUTE;
+    };
+  }
+
+  // Return the value of the specified coordinate token, which is the offset for relative and local coordinates, or NaN if the token is not a valid coordinate
+  public static double parseCoordinate(CharSequence token, TokenKind kind)
+  {
+    return switch (kind)
+    {
+      case ABSOLUTE -> NumberParser.parseDoubleOrNaN(token, 0, token.length());
+      case RELATIVE, LOCAL -> token.length() == 1 ? 0.0 : NumberParser.parseDoubleOrNaN(token, 1, token.length());
+      default -> Double.NaN;
+    };
+  }
+
+  // Return the kind of the specified single-token location in one pass, which is either the current location (~), a player name, a block reference (@mat or ^mat) or an alias (ns:key)
+  public static TokenKind classify(CharSequence token)
+  {
+    var length = token.length();
+    if (length == 0)
+      return TokenKind.INVALID;
+
+    var first = token.charAt(0);
+    if (first == '~')
+      return length == 1 ? TokenKind.CURRENT : TokenKind.INVALID;
+
+    // Check for a block reference
+    if (first == '@' || first == '^')
+    {
+      if (length < 2 || !isLowerIdentifierStart(token.charAt(1)))
+        return TokenKind.INVALID;
+      for (var i = 2; i < length; i ++)
+      {
+        if (!isLowerIdentifierPart(token.charAt(i)))
+          return TokenKind.INVALID;
+      }
+      return TokenKind.BLOCK;
+    }
+
+    // Check for a player name or an alias
+    var player = true;
+    var colonIndex = -1;
+    for (var i = 0; i < length; i ++)
+    {
+      var c = token.charAt(i);
+      if (c == ':')
+      {
+        if (colonIndex > -1)
+          return TokenKind.INVALID;
+        colonIndex = i;
+      }
+      else if (colonIndex == -1)
+      {
+        if (!isNamespaceChar(c))
+          return TokenKind.INVALID;
+        player = player && c != '.' && c != '-';
+      }
+      else if (!isKeyChar(c))
+      {
+        return TokenKind.INVALID;
+      }
+    }
+
+    if (colonIndex == -1)
+      return player && length >= MIN_PLAYER_NAME_LENGTH && length <= MAX_PLAYER_NAME_LENGTH ? TokenKind.PLAYER : TokenKind.INVALID;
+    return colonIndex > 0 && colonIndex < length - 1 ? TokenKind.ALIAS : TokenKind.INVALID;
+  }
+
+
+  // Return if the specified character can start a lowercase identifier
+  private static boolean isLowerIdentifierStart(char c)
+  {
+    return (c >= 'a' && c <= 'z') || c == '_';
+  }
+
+  // Return if the specified character can be part of a lowercase identifier
+  private static boolean isLowerIdentifierPart(char c)
+  {
+    return isLowerIdentifierStart(c) || (c >= '0' && c <= '9');
+  }
+
+  // Return if the specified character can be part of the namespace of a namespaced key
+  private static boolean isNamespaceChar(char c)
+  {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '.' || c == '-';
+  }
+
+  // Return if the specified character can be part of the key of a namespaced key
+  private static boolean isKeyChar(char c)
+  {
+    return isNamespaceChar(c) || c == '/';
+  }
+}
@@ -0,0 +1,281 @@
+package dev.danae.common.commands.arguments;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import dev.danae.common.commands.CommandContext;
+import dev.danae.common.commands.Suggestion;
+import dev.danae.common.commands.SuggestionSource;
+import dev.danae.common.commands.arguments.LocationLexer.TokenKind;
+import dev.danae.common.util.Cuboid;
+import dev.danae.common.util.MaterialIndex;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.IllegalPluginAccessException;
+import org.bukkit.plugin.Plugin;
+
+
+final class LocationParser
+{
+  // The time in milliseconds to wait for a block search in chunk snapshots captured on the main thread
+  private static final long BLOCK_SEARCH_TIMEOUT_MILLIS = 2000;
+
+
+  // The allowed formats for the parser
+  private final EnumSet<LocationFormat> allowedFormats;
+
+  // The block search radius for the parser
+  private final int blockSearchRadius;
+
+  // The aliases for the parser
+  private final Map<NamespacedKey, Location> aliases;
+
+  // The plugin that captures chunk snapshots on the main thread when a block location is parsed from another thread, or null if blocks are searched on the calling thread
+  private final Plugin plugin;
+
+  // The index that answers block locations for indexed materials, or null if blocks are always searched in the cuboid around the origin
+  private final MaterialIndex materialIndex;
+
+
+  // The argument types for the parser
+  private final StringArgumentType<Player> playerArgumentType;
+  private final StringArgumentType<Material> blockArgumentType;
+  private final StringArgumentType<NamespacedKey> aliasArgumentType;
+
+
+  // Constructor
+  public LocationParser(EnumSet<LocationFormat> allowedFormats, int blockSearchRadius, Map<NamespacedKey, Location> aliases, Plugin plugin, MaterialIndex materialIndex)
+  {
+    this.allowedFormats = EnumSet.copyOf(allowedFormats);
+    this.blockSearchRadius = blockSearchRadius;
+    this.aliases = Map.copyOf(aliases);
+    this.plugin = plugin;
+    this.materialIndex = materialIndex;
+
+    this.playerArgumentType = ArgumentType.getPlayerArgumentType();
+    this.blockArgumentType = ArgumentType.getMaterialArgumentType(MaterialFilter.BLOCKS);
+    this.aliasArgumentType = new NamespacedKeyArgumentType(SuggestionSource.of(this.aliases.keySet().stream()
+      .map(key -> key.toString())));
+  }
+
+
+  // Try to parse a location relative to the specified origin from the next elements in the specified scanner without throwing
+  public ParseResult<Location> tryParse(ArgumentType<Location> type, Scanner scanner, Location origin)
+  {
+    // Try to parse a numeric location from the next three elements, reading them as slices so that a raw-line scanner does not create strings for them
+    if (this.allowedFormats.contains(LocationFormat.NUMERIC) && !scanner.isAtEnd(3))
+    {
+      var location = parseNumeric(origin, scanner.peekSlice(1), scanner.peekSlice(2), scanner.peekSlice(3));
+      if (location != null)
+      {
+        scanner.skip(3);
+        return ParseResult.success(location);
+      }
+    }
+
+    // Otherwise parse a location from the next element
+    if (scanner.isAtEnd())
+      return ParseResult.failure(ParseFailure.endOfArguments(type));
+
+    var result = this.tryParseFromString(type, scanner.peek(), origin);
+    if (result.isSuccess())
+      scanner.skip(1);
+    return result;
+  }
+
+  // Return if parsing must happen on the main thread, which is the case if block locations are allowed and the blocks cannot be searched in chunk snapshots captured with a plugin
+  public boolean requiresMainThread()
+  {
+    return this.allowedFormats.contains(LocationFormat.BLOCK) && this.plugin == null;
+  }
+
+  // Return suggestions for the specified input
+  public Stream<String> suggest(CommandContext context, int argumentIndex)
+  {
+    // Check if there are location-related arguments
+    if (!context.hasAtLeastArgumentsCount(argumentIndex + 1) || context.hasAtLeastArgumentsCount(argumentIndex + 4))
+      return Stream.empty();
+
+    // Add the suggestions
+    Stream<String> suggestions = Stream.of();
+
+    // Check for a numeric location
+    if (this.allowedFormats.contains(LocationFormat.NUMERIC))
+      suggestions = Stream.concat(suggestions, Stream.of("~"));
+
+    // Check if there is only one location argument
+    if (context.hasArgumentsCount(argumentIndex + 1))
+    {
+      // Check for a player location
+      if (this.allowedFormats.contains(LocationFormat.PLAYER))
+      {
+        suggestions = Stream.concat(suggestions, this.playerArgumentType.suggest(context, argumentIndex));
+      }
+
+      // Check for a block location
+      if (this.allowedFormats.contains(LocationFormat.BLOCK))
+      {
+        suggestions = Stream.concat(suggestions, this.blockArgumentType.suggest(context, argumentIndex)
+          .map(material -> String.format("@%s", material)));
+        suggestions = Stream.concat(suggestions, this.blockArgumentType.suggest(context, argumentIndex)
+          .map(material -> String.format("^%s", material)));
+      }
+
+      // Check for an alias location
+      if (this.allowedFormats.contains(LocationFormat.ALIAS))
+      {
+        suggestions = Stream.concat(suggestions, this.aliasArgumentType.suggest(context, argumentIndex)
+        .map(alias -> String.format("%s", alias)));
+      }
+    }
+  
+    // Return the suggestions
+    return Suggestion.find(context.getArgument(argumentIndex + 1), suggestions);
+  }
+
+  
+  // Parse a numeric location relative to the specified origin from the specified coordinate tokens, or return null if they are not a valid numeric location
+  private static Location parseNumeric(Location origin, CharSequence xToken, CharSequence yToken, CharSequence zToken)
+  {
+    // Classify the coordinates, where local coordinates cannot be mixed with other coordinates
+    var xKind = LocationLexer.classifyCoordinate(xToken);
+    var yKind = LocationLexer.classifyCoordinate(yToken);
+    var zKind = LocationLexer.classifyCoordinate(zToken);
+    if (xKind == TokenKind.INVALID || yKind == TokenKind.INVALID || zKind == TokenKind.INVALID)
+      return null;
+
+    var local = xKind == TokenKind.LOCAL;
+    if ((yKind == TokenKind.LOCAL) != local || (zKind == TokenKind.LOCAL) != local)
+      return null;
+
+    // Parse the values of the coordinates
+    var x = LocationLexer.parseCoordinate(xToken, xKind);
+    var y = LocationLexer.parseCoordinate(yToken, yKind);
+    var z = LocationLexer.parseCoordinate(zToken, zKind);
+    if (Double.isNaN(x) || Double.isNaN(y) || Double.isNaN(z))
+      return null;
+
+    // Return the location
+    if (local)
+      return toLocalLocation(origin, x, y, z);
+
+    return new Location(origin.getWorld(),
+      xKind == TokenKind.RELATIVE ? origin.getBlockX() + x : x,
+      yKind == TokenKind.RELATIVE ? origin.getBlockY() + y : y,
+      zKind == TokenKind.RELATIVE ? origin.getBlockZ() + z : z);
+  }
+
+  // Try to parse a single-element location relative to the specified origin from the specified string without throwing
+  private ParseResult<Location> tryParseFromString(ArgumentType<Location> type, String input, Location origin)
+  {
+    try
+    {
+      var location = switch (LocationLexer.classify(input))
+      {
+        case CURRENT -> this.allowedFormats.contains(LocationFormat.NUMERIC) ? origin : null;
+        case PLAYER -> this.allowedFormats.contains(LocationFormat.PLAYER) ? this.parsePlayer(input, origin) : null;
+        case BLOCK -> this.allowedFormats.contains(LocationFormat.BLOCK) ? this.parseBlock(input, origin) : null;
+        case ALIAS -> this.allowedFormats.contains(LocationFormat.ALIAS) ? this.parseAlias(input) : null;
+        default -> null;
+      };
+      return location != null ? ParseResult.success(location) : ParseResult.failure(ParseFailure.typeMismatch(type, input));
+    }
+    catch (ArgumentException ex)
+    {
+      return ParseResult.failure(ParseFailure.of(ex));
+    }
+  }
+
+  // Parse the location of the player with the specified name
+  private Location parsePlayer(String input, Location origin) throws ArgumentException
+  {
+    var player = this.playerArgumentType.parseFromString(input);
+    if (player.getLocation().getWorld() != origin.getWorld())
+      throw new LocationWorldMismatchException(player);
+
+    return player.getLocation();
+  }
+
+  // Parse the location of the nearest block for the specified block reference, which is the block itself for @ or the position above it for ^
+  private Location parseBlock(String input, Location origin) throws ArgumentException
+  {
+    var material = this.blockArgumentType.parseFromString(input.substring(1));
+
+    // Find the block nearest to the origin block in the cuboid around it, using the material index if it contains the material, or searching chunk snapshots off the main thread if the location is parsed from another thread
+    var cuboid = Cuboid.around(origin, this.blockSearchRadius);
+    var originBlock = origin.getBlock().getLocation();
+    Block block;
+    if (this.materialIndex != null && this.materialIndex.isIndexed(material))
+      block = this.materialIndex.findNearestBlock(material, cuboid, originBlock);
+    else if (this.plugin != null && !Bukkit.isPrimaryThread())
+      block = this.findNearestBlockAsync(cuboid, material, originBlock);
+    else
+      block = cuboid.findNearestBlock(material, originBlock);
+    if (block == null)
+      throw new LocationBlockNotFoundException(material, this.blockSearchRadius);
+
+    // Return the appropriate position based on the mode
+    return input.charAt(0) == '^' ? block.getLocation().add(0, 1, 0) : block.getLocation();
+  }
+
+  // Return the nearest block of the specified material in the specified cuboid to the specified location by searching chunk snapshots captured on the main thread, waiting at most the block search timeout
+  private Block findNearestBlockAsync(Cuboid cuboid, Material material, Location loc) throws ArgumentException
+  {
+    try
+    {
+      return cuboid.findNearestBlockAsync(material, loc, this.plugin)
+        .orTimeout(BLOCK_SEARCH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+        .join();
+    }
+    catch (CompletionException | CancellationException | IllegalPluginAccessException ex)
+    {
+      throw new LocationBlockSearchFailedException(material, ex);
+    }
+  }
+
+  // Parse the location of the specified alias
+  private Location parseAlias(String input) throws ArgumentException
+  {
+    var key = this.aliasArgumentType.parseFromString(input);
+    var location = this.aliases.get(key);
+    if (location == null)
+      throw new LocationAliasNotFoundException(key);
+
+    return location;
+  }
+
+
+  // Return the location at the specified local offsets to the left, upwards and forwards relative to the rotation of the origin
+  private static Location toLocalLocation(Location origin, double left, double up, double forward)
+  {
+    var yaw = Math.toRadians(origin.getYaw() + 90.0);
+    var pitch = Math.toRadians(-origin.getPitch());
+    var upPitch = Math.toRadians(-origin.getPitch() + 90.0);
+
+    // Calculate the forward and upward axes of the origin
+    var forwardX = Math.cos(yaw) * Math.cos(pitch);
+    var forwardY = Math.sin(pitch);
+    var forwardZ = Math.sin(yaw) * Math.cos(pitch);
+    var upX = Math.cos(yaw) * Math.cos(upPitch);
+    var upY = Math.sin(upPitch);
+    var upZ = Math.sin(yaw) * Math.cos(upPitch);
+
+    // Calculate the left axis as the negated cross product of the forward and upward axes
+    var leftX = -(forwardY * upZ - forwardZ * upY);
+    var leftY = -(forwardZ * upX - forwardX * upZ);
+    var leftZ = -(forwardX * upY - forwardY * upX);
+
+    return new Location(origin.getWorld(),
+      origin.getX() + forwardX * forward + upX * up + leftX * left,
+      origin.getY() + forwardY * forward + upY * up + leftY * left,
+      origin.getZ() + forwardZ * forward + upZ * up + leftZ * left,
+      origin.getYaw(), origin.getPitch());
+  }
+}
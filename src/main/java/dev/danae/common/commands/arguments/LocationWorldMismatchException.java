@@ -6,7 +6,7 @@ import org.bukkit.entity.Player;
 public class LocationWorldMismatchException extends ArgumentException
 {
   // The message format for the exception
-  private static final String MESSAGE_FORMAT = "%0$s is not in the same world as the origin location";
+  private static final String MESSAGE_FORMAT = "%s is not in the same world as the origin location";
 
 
   // The player of the argument
@@ -0,0 +1,69 @@
+package dev.danae.common.commands.arguments;
+
+import dev.danae.common.commands.SuggestionSource;
+
+
+public final class LongArgumentType extends NumberArgumentType<Long>
+{
+  // The range of the argument type
+  private final long min;
+  private final long max;
+
+
+  // Constructor
+  LongArgumentType(long min, long max, SuggestionSource suggestions)
+  {
+    super(Long.class, "integer", min, max, suggestions);
+
+    this.min = min;
+    this.max = max;
+  }
+
+
+  // Return the minimum value of the argument type
+  public long getMin()
+  {
+    return this.min;
+  }
+
+  // Return the maximum value of the argument type
+  public long getMax()
+  {
+    return this.max;
+  }
+
+
+  // Parse a long from the specified input
+  public long parseLong(CharSequence input) throws ArgumentException
+  {
+    return NumberParser.parseLong(this, input, this.min, this.max);
+  }
+
+  // Parse a long from the specified scanner, only advancing the scanner if parsing succeeds
+  public long parseLong(Scanner scanner) throws ArgumentException
+  {
+    var mark = scanner.mark();
+    try
+    {
+      return this.parseLong(this.take(scanner));
+    }
+    catch (ArgumentException ex)
+    {
+      throw restore(scanner, mark, ex);
+    }
+  }
+
+  // Parse a number in the range of the argument type from the specified input
+  @Override
+  Long parseNumber(CharSequence input) throws ArgumentException
+  {
+    return this.parseLong(input);
+  }
+
+  // Try to parse the argument from the specified string without throwing
+  @Override
+  public ParseResult<Long> tryParseFromString(String input)
+  {
+    return NumberParser.tryParseLong(this, input, this.min, this.max);
+  }
+}
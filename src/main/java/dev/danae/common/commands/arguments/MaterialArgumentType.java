@@ -1,12 +1,18 @@
 package dev.danae.common.commands.arguments;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
-import dev.danae.common.commands.Suggestion;
+import dev.danae.common.commands.SuggestionIndex;
 import org.bukkit.Material;
 
 
 final class MaterialArgumentType implements StringArgumentType<Material>
 {
+  // The suggestion indices for each material filter
+  private static final Map<MaterialFilter, SuggestionIndex> suggestionIndices = new ConcurrentHashMap<>();
+
+
   // The material filter for the argument type
   private final MaterialFilter filter;
 
@@ -48,7 +54,8 @@ final class MaterialArgumentType implements StringArgumentType<Material>
   @Override
   public Stream<String> suggestFromString(String input)
   {
-    return Suggestion.find(input, this.filter.stream()
-      .map(material -> material.name().toLowerCase()));
+    return suggestionIndices.computeIfAbsent(this.filter, filter -> SuggestionIndex.of(filter.stream()
+      .map(material -> material.name().toLowerCase())))
+      .find(input);
   }
 }
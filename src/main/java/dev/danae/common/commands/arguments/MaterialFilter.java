@@ -1,11 +1,12 @@
 package dev.danae.common.commands.arguments;
 
 import java.util.Arrays;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 import org.bukkit.Material;
 
 
-public enum MaterialFilter
+public enum MaterialFilter implements Predicate<Material>
 {
   ALL,
   BLOCKS,
@@ -25,6 +26,13 @@ public enum MaterialFilter
     };
   }
 
+  // Return if the specified material matches the filter
+  @Override
+  public boolean test(Material material)
+  {
+    return this.matches(material);
+  }
+
   // Return a stream of all materials matching the filter
   public Stream<Material> stream()
   {
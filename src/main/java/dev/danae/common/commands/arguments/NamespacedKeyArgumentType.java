@@ -3,18 +3,18 @@ package dev.danae.common.commands.arguments;
 import java.util.regex.MatchResult;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
-import dev.danae.common.commands.Suggestion;
+import dev.danae.common.commands.SuggestionSource;
 import org.bukkit.NamespacedKey;
 
 
 final class NamespacedKeyArgumentType implements PatternArgumentType<NamespacedKey>
 {
-  // The suggestions for the argument type
-  private final Stream<String> suggestions;
+  // The suggestion source for the argument type
+  private final SuggestionSource suggestions;
 
 
   // Constructor
-  public NamespacedKeyArgumentType(Stream<String> suggestions)
+  public NamespacedKeyArgumentType(SuggestionSource suggestions)
   {
     this.suggestions = suggestions;
   }
@@ -55,6 +55,6 @@ final class NamespacedKeyArgumentType implements PatternArgumentType<NamespacedK
   @Override
   public Stream<String> suggestFromString(String input)
   {
-    return Suggestion.find(input, this.suggestions);
+    return this.suggestions.find(input);
   }
 }
@@ -0,0 +1,90 @@
+package dev.danae.common.commands.arguments;
+
+import java.util.stream.Stream;
+import dev.danae.common.commands.SuggestionSource;
+
+
+abstract class NumberArgumentType<T extends Number & Comparable<T>> implements StringArgumentType<T>
+{
+  // The type of the argument type
+  private final Class<T> type;
+
+  // The type name of the argument type
+  private final String typeName;
+
+  // The suggestion source for the argument type
+  private final SuggestionSource suggestions;
+
+
+  // Constructor
+  NumberArgumentType(Class<T> type, String typeName, T min, T max, SuggestionSource suggestions)
+  {
+    if (min.compareTo(max) > 0)
+      throw new IllegalArgumentException("min must not be greater than max");
+
+    this.type = type;
+    this.typeName = typeName;
+    this.suggestions = suggestions;
+  }
+
+
+  // Return the type of the argument type
+  @Override
+  public Class<T> getType()
+  {
+    return this.type;
+  }
+
+  // Return the type name for the argument type
+  @Override
+  public String getTypeName()
+  {
+    return this.typeName;
+  }
+
+
+  // Parse a number in the range of the argument type from the specified input
+  abstract T parseNumber(CharSequence input) throws ArgumentException;
+
+  // Take the next token from the specified scanner as a slice, which must be passed to restore if parsing it fails
+  final CharSequence take(Scanner scanner) throws ArgumentException
+  {
+    return scanner.takeSlice(this.typeName);
+  }
+
+  // Restore the specified scanner to the specified mark after parsing a taken token failed and return the exception to rethrow
+  static ArgumentException restore(Scanner scanner, int mark, ArgumentException ex)
+  {
+    scanner.reset(mark);
+    return ex;
+  }
+
+  // Parse an argument from the specified scanner, only advancing the scanner if parsing succeeds
+  @Override
+  public T parse(Scanner scanner) throws ArgumentException
+  {
+    var mark = scanner.mark();
+    try
+    {
+      return this.parseNumber(this.take(scanner));
+    }
+    catch (ArgumentException ex)
+    {
+      throw restore(scanner, mark, ex);
+    }
+  }
+
+  // Parse the argument from the specified string
+  @Override
+  public T parseFromString(String input) throws ArgumentException
+  {
+    return this.parseNumber(input);
+  }
+
+  // Return suggestions for the specified string
+  @Override
+  public Stream<String> suggestFromString(String input)
+  {
+    return this.suggestions.find(input);
+  }
+}
@@ -0,0 +1,219 @@
+package dev.danae.common.commands.arguments;
+
+
+final class NumberParser
+{
+  // Class that defines a preallocated failure signal of the parser, which has no stack trace or message
+  private static final class Failure extends Exception
+  {
+    // The reason of the failure
+    private final ParseFailure.Reason reason;
+
+
+    // Constructor
+    private Failure(ParseFailure.Reason reason)
+    {
+      super(null, null, false, false);
+      this.reason = reason;
+    }
+  }
+
+
+  // The failure signals of the parser
+  private static final Failure TYPE_MISMATCH = new Failure(ParseFailure.Reason.TYPE_MISMATCH);
+  private static final Failure OUT_OF_RANGE = new Failure(ParseFailure.Reason.OUT_OF_RANGE);
+
+  // The powers of ten that are exactly representable as a double
+  private static final double[] EXACT_POWERS_OF_TEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+    1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22,
+  };
+
+  // The largest mantissa that is exactly representable as a double
+  private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+
+  // Private constructor
+  private NumberParser()
+  {
+  }
+
+
+  // Parse a base-10 integer in the specified range from the specified input
+  public static long parseLong(ArgumentType<?> type, CharSequence input, long min, long max) throws ArgumentException
+  {
+    try
+    {
+      return parseLong(input, min, max);
+    }
+    catch (Failure failure)
+    {
+      throw toFailure(failure, type, input, min, max).toException();
+    }
+  }
+
+  // Try to parse a base-10 integer in the specified range from the specified input without throwing
+  public static ParseResult<Long> tryParseLong(ArgumentType<?> type, CharSequence input, long min, long max)
+  {
+    try
+    {
+      return ParseResult.success(parseLong(input, min, max));
+    }
+    catch (Failure failure)
+    {
+      return ParseResult.failure(toFailure(failure, type, input, min, max));
+    }
+  }
+
+  // Try to parse a base-10 integer in the specified int range from the specified input without throwing
+  public static ParseResult<Integer> tryParseInt(ArgumentType<?> type, CharSequence input, int min, int max)
+  {
+    try
+    {
+      return ParseResult.success((int)parseLong(input, min, max));
+    }
+    catch (Failure failure)
+    {
+      return ParseResult.failure(toFailure(failure, type, input, min, max));
+    }
+  }
+
+  // Parse a decimal number in the specified range from the specified input
+  public static double parseDouble(ArgumentType<?> type, CharSequence input, double min, double max) throws ArgumentException
+  {
+    try
+    {
+      return parseDouble(input, 0, input.length(), min, max);
+    }
+    catch (Failure failure)
+    {
+      throw toFailure(failure, type, input, min, max).toException();
+    }
+  }
+
+  // Try to parse a decimal number in the specified range from the specified input without throwing
+  public static ParseResult<Double> tryParseDouble(ArgumentType<?> type, CharSequence input, double min, double max)
+  {
+    try
+    {
+      return ParseResult.success(parseDouble(input, 0, input.length(), min, max));
+    }
+    catch (Failure failure)
+    {
+      return ParseResult.failure(toFailure(failure, type, input, min, max));
+    }
+  }
+
+
+  // Parse a decimal number from the specified range of characters of the input, or return NaN if the characters are not a valid number
+  public static double parseDoubleOrNaN(CharSequence input, int start, int end)
+  {
+    try
+    {
+      return parseDouble(input, start, end, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    }
+    catch (Failure failure)
+    {
+      return Double.NaN;
+    }
+  }
+
+
+  // Parse a base-10 integer in the specified range from the specified input in a single pass, which matches INT_PATTERN
+  private static long parseLong(CharSequence input, long min, long max) throws Failure
+  {
+    var length = input.length();
+    var negative = length > 0 && input.charAt(0) == '-';
+    var position = negative ? 1 : 0;
+
+    // Check for an empty number, leading zeros and a negative zero
+    if (position == length)
+      throw TYPE_MISMATCH;
+    if (input.charAt(position) == '0' && (negative || length > 1))
+      throw TYPE_MISMATCH;
+
+    // Accumulate the digits negatively, so the minimum value does not overflow
+    var limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+    var multiplyLimit = limit / 10;
+    var result = 0L;
+    for (; position < length; position ++)
+    {
+      var digit = input.charAt(position) - '0';
+      if (digit < 0 || digit > 9)
+        throw TYPE_MISMATCH;
+      if (result < multiplyLimit)
+        throw OUT_OF_RANGE;
+
+      result *= 10;
+      if (result < limit + digit)
+        throw OUT_OF_RANGE;
+      result -= digit;
+    }
+
+    var value = negative ? result : -result;
+    if (value < min || value > max)
+      throw OUT_OF_RANGE;
+    return value;
+  }
+
+  // Parse a decimal number in the specified range from the specified input in a single pass, which matches FLOAT_PATTERN
+  private static double parseDouble(CharSequence input, int start, int end, double min, double max) throws Failure
+  {
+    var negative = start < end && input.charAt(start) == '-';
+    var position = negative ? start + 1 : start;
+
+    // Scan the integer digits and the optional fractional digits
+    var mantissa = 0L;
+    var significantDigits = 0;
+    var fractionDigits = 0;
+    var integerStart = position;
+    for (; position < end && isDigit(input.charAt(position)); position ++)
+    {
+      mantissa = mantissa * 10 + (input.charAt(position) - '0');
+      if (mantissa > 0)
+        significantDigits ++;
+    }
+    if (position == integerStart)
+      throw TYPE_MISMATCH;
+
+    if (position < end && input.charAt(position) == '.')
+    {
+      var fractionStart = ++ position;
+      for (; position < end && isDigit(input.charAt(position)); position ++)
+      {
+        mantissa = mantissa * 10 + (input.charAt(position) - '0');
+        if (mantissa > 0)
+          significantDigits ++;
+        fractionDigits ++;
+      }
+      if (position == fractionStart)
+        throw TYPE_MISMATCH;
+    }
+    if (position < end)
+      throw TYPE_MISMATCH;
+
+    // Convert the mantissa exactly if both it and the power of ten are representable as a double, and otherwise defer to the correctly rounding parser of the JDK
+    double value;
+    if (significantDigits <= 18 && mantissa <= MAX_EXACT_MANTISSA && fractionDigits < EXACT_POWERS_OF_TEN.length)
+      value = negative ? -(mantissa / EXACT_POWERS_OF_TEN[fractionDigits]) : mantissa / EXACT_POWERS_OF_TEN[fractionDigits];
+    else
+      value = Double.parseDouble(input.subSequence(start, end).toString());
+
+    if (value < min || value > max)
+      throw OUT_OF_RANGE;
+    return value;
+  }
+
+
+  // Return the parse failure for the specified failure signal
+  private static ParseFailure toFailure(Failure failure, ArgumentType<?> type, CharSequence input, Number min, Number max)
+  {
+    return failure.reason == ParseFailure.Reason.OUT_OF_RANGE ? ParseFailure.outOfRange(type, input, min, max) : ParseFailure.typeMismatch(type, input);
+  }
+
+  // Return if the specified character is a base-10 digit
+  private static boolean isDigit(char c)
+  {
+    return c >= '0' && c <= '9';
+  }
+}
@@ -0,0 +1,112 @@
+package dev.danae.common.commands.arguments;
+
+
+public final class ParseFailure
+{
+  // Enum that defines the reason of a parse failure
+  public enum Reason
+  {
+    END_OF_ARGUMENTS,
+    TYPE_MISMATCH,
+    OUT_OF_RANGE,
+    EXCEPTION,
+  }
+
+
+  // The reason of the failure
+  private final Reason reason;
+
+  // The expected type of the argument
+  private final ArgumentType<?> expectedType;
+
+  // The actual value of the argument, which is only converted to a string when the message is rendered
+  private final CharSequence actualValue;
+
+  // The range of the argument if the value was out of range
+  private final Number min;
+  private final Number max;
+
+  // The exception that caused the failure if the argument type reported it as an exception
+  private final ArgumentException exception;
+
+
+  // Constructor
+  private ParseFailure(Reason reason, ArgumentType<?> expectedType, CharSequence actualValue, Number min, Number max, ArgumentException exception)
+  {
+    this.reason = reason;
+    this.expectedType = expectedType;
+    this.actualValue = actualValue;
+    this.min = min;
+    this.max = max;
+    this.exception = exception;
+  }
+
+  // Return a failure for when the scanner reached the end of the arguments
+  public static ParseFailure endOfArguments(ArgumentType<?> expectedType)
+  {
+    return new ParseFailure(Reason.END_OF_ARGUMENTS, expectedType, null, null, null, null);
+  }
+
+  // Return a failure for when the argument does not match the expected type
+  public static ParseFailure typeMismatch(ArgumentType<?> expectedType, CharSequence actualValue)
+  {
+    return new ParseFailure(Reason.TYPE_MISMATCH, expectedType, actualValue, null, null, null);
+  }
+
+  // Return a failure for when the argument is out of the range of the expected type
+  public static ParseFailure outOfRange(ArgumentType<?> expectedType, CharSequence actualValue, Number min, Number max)
+  {
+    return new ParseFailure(Reason.OUT_OF_RANGE, expectedType, actualValue, min, max, null);
+  }
+
+  // Return a failure for an exception that was thrown by an argument type
+  public static ParseFailure of(ArgumentException exception)
+  {
+    return new ParseFailure(Reason.EXCEPTION, null, null, null, null, exception);
+  }
+
+
+  // Return the reason of the failure
+  public Reason getReason()
+  {
+    return this.reason;
+  }
+
+  // Return the expected type of the argument, or null if the failure was caused by an exception
+  public ArgumentType<?> getExpectedType()
+  {
+    return this.expectedType;
+  }
+
+  // Return the actual value of the argument, or null if there is none
+  public CharSequence getActualValue()
+  {
+    return this.actualValue;
+  }
+
+
+  // Return the exception for the failure, which renders its message
+  public ArgumentException toException()
+  {
+    return switch (this.reason)
+    {
+      case END_OF_ARGUMENTS -> new ArgumentException(String.format("Expected %s, but reached end of arguments", this.expectedType.getTypeName()));
+      case TYPE_MISMATCH -> new ArgumentTypeMismatchException(this.expectedType, this.actualValue.toString());
+      case OUT_OF_RANGE -> new ArgumentOutOfRangeException(this.expectedType, this.actualValue.toString(), this.min, this.max);
+      case EXCEPTION -> this.exception;
+    };
+  }
+
+  // Return the message of the failure
+  public String getMessage()
+  {
+    return this.toException().getMessage();
+  }
+
+  // Return the string representation of the failure
+  @Override
+  public String toString()
+  {
+    return String.format("ParseFailure(%s)", this.reason);
+  }
+}
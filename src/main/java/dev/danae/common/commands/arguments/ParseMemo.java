@@ -0,0 +1,123 @@
+package dev.danae.common.commands.arguments;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+
+public final class ParseMemo
+{
+  // Class that defines a memoized parse result
+  private static final class Entry
+  {
+    // The result of parsing
+    private final ParseResult<?> result;
+
+    // The end of the range of the scanner that parsed the result
+    private final int end;
+
+    // The index of the scanner after parsing
+    private final int nextIndex;
+
+
+    // Constructor
+    private Entry(ParseResult<?> result, int end, int nextIndex)
+    {
+      this.result = result;
+      this.end = end;
+      this.nextIndex = nextIndex;
+    }
+  }
+
+
+  // The tokens the memo is bound to, or null if it is not bound yet
+  private Object[] tokens = null;
+
+  // The time in nanoseconds at which the memo was first bound to its tokens
+  private long boundAt = 0L;
+
+  // The memoized entries for each argument type, indexed by the mark of the scanner before parsing plus one
+  // Argument types are compared with equals, so types that are built anew on each call hit the memo if they parse the same way, such as location argument types with the same parser and origin
+  private Map<ArgumentType<?>, Entry[]> entries = null;
+
+  // The number of memoized entries
+  private int size = 0;
+
+
+  // Return the number of memoized results
+  public int size()
+  {
+    return this.size;
+  }
+
+  // Remove all memoized results
+  public void clear()
+  {
+    this.entries = null;
+    this.size = 0;
+  }
+
+
+  // Bind the memo to the specified tokens, keeping the memoized results if they were memoized for equal tokens at most the specified number of milliseconds ago, and removing them otherwise
+  public void rebind(String[] tokens, long maxAgeMillis)
+  {
+    var now = System.nanoTime();
+    if (this.tokens == null || !Arrays.equals(this.tokens, tokens) || now - this.boundAt > maxAgeMillis * 1_000_000L)
+    {
+      this.clear();
+      this.tokens = null;
+    }
+    this.bind(tokens, now);
+  }
+
+  // Bind the memo to the specified tokens, which must be equal to the tokens if it is already bound
+  void bind(Object[] tokens)
+  {
+    this.bind(tokens, System.nanoTime());
+  }
+
+  // Bind the memo to the specified tokens at the specified time, which must be equal to the tokens if it is already bound
+  private void bind(Object[] tokens, long now)
+  {
+    if (this.tokens == null)
+      this.boundAt = now;
+    else if (this.tokens != tokens && !Arrays.equals(this.tokens, tokens))
+      throw new IllegalArgumentException("The memo is already bound to other arguments");
+    this.tokens = tokens;
+  }
+
+  // Return the memoized result of the specified argument type at the specified mark and advance the scanner to its index after parsing, or parse and memoize it if there is none
+  // The returned value is a copy made by the argument type, so that callers that modify it don't change the memoized value
+  @SuppressWarnings("unchecked")
+  <T> ParseResult<T> tryParse(ArgumentType<T> type, Scanner scanner, int mark, int end)
+  {
+    if (this.entries == null)
+      this.entries = new HashMap<>();
+
+    var typeEntries = this.entries.get(type);
+    if (typeEntries == null)
+    {
+      typeEntries = new Entry[this.tokens.length + 1];
+      this.entries.put(type, typeEntries);
+    }
+
+    var entry = typeEntries[mark + 1];
+    if (entry != null && entry.end == end)
+    {
+      scanner.reset(entry.nextIndex);
+      return copy(type, (ParseResult<T>)entry.result);
+    }
+
+    var result = type.tryParse(scanner);
+    if (entry == null)
+      this.size ++;
+    typeEntries[mark + 1] = new Entry(result, end, scanner.mark());
+    return copy(type, result);
+  }
+
+  // Return the specified result with a copy of its value made by the specified argument type
+  private static <T> ParseResult<T> copy(ArgumentType<T> type, ParseResult<T> result)
+  {
+    return result.isSuccess() ? ParseResult.success(type.copyParsed(result.getValue())) : result;
+  }
+}
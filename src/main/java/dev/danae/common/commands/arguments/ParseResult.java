@@ -0,0 +1,91 @@
+package dev.danae.common.commands.arguments;
+
+import java.util.Objects;
+
+
+public final class ParseResult<T>
+{
+  // The value of the result if parsing succeeded
+  private final T value;
+
+  // The failure of the result if parsing failed, or null if parsing succeeded
+  private final ParseFailure failure;
+
+
+  // Constructor
+  private ParseResult(T value, ParseFailure failure)
+  {
+    this.value = value;
+    this.failure = failure;
+  }
+
+  // Return a successful result with the specified value
+  public static <T> ParseResult<T> success(T value)
+  {
+    return new ParseResult<>(value, null);
+  }
+
+  // Return a failed result with the specified failure
+  public static <T> ParseResult<T> failure(ParseFailure failure)
+  {
+    return new ParseResult<>(null, Objects.requireNonNull(failure, "failure must not be null"));
+  }
+
+
+  // Return if parsing succeeded
+  public boolean isSuccess()
+  {
+    return this.failure == null;
+  }
+
+  // Return if parsing failed
+  public boolean isFailure()
+  {
+    return this.failure != null;
+  }
+
+  // Return the value of the result
+  public T getValue()
+  {
+    if (this.failure != null)
+      throw new IllegalStateException("The result has no value because parsing failed");
+    return this.value;
+  }
+
+  // Return the failure of the result, or null if parsing succeeded
+  public ParseFailure getFailure()
+  {
+    return this.failure;
+  }
+
+  // Return the value of the result, or the specified default value if parsing failed
+  public T getOrDefault(T defaultValue)
+  {
+    return this.failure == null ? this.value : defaultValue;
+  }
+
+  // Return the value of the result, or throw the exception for the failure if parsing failed
+  public T getOrThrow() throws ArgumentException
+  {
+    if (this.failure != null)
+      throw this.failure.toException();
+    return this.value;
+  }
+
+  // Return a result with the value mapped by the specified function if parsing succeeded
+  @SuppressWarnings("unchecked")
+  public <R> ParseResult<R> map(ArgumentFunction<? super T, ? extends R> function)
+  {
+    if (this.failure != null)
+      return (ParseResult<R>)this;
+
+    try
+    {
+      return success(function.apply(this.value));
+    }
+    catch (ArgumentException ex)
+    {
+      return failure(ParseFailure.of(ex));
+    }
+  }
+}
@@ -2,15 +2,21 @@ package dev.danae.common.commands.arguments;
 
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
-import dev.danae.common.commands.Suggestion;
+import dev.danae.common.commands.SuggestionSource;
 import java.util.regex.MatchResult;
 
 
 public interface PatternArgumentType<T> extends StringArgumentType<T>
 {
-  // Return the pattern for the argument type
+  // Return the pattern for the argument type, which is validated without a matcher if it is one of the built-in patterns in ArgumentType
   public Pattern getPattern();
 
+  // Return the match result of the whole specified input against the pattern, or null if the input does not match
+  public default MatchResult matchPattern(String input)
+  {
+    return PatternValidator.match(this.getPattern(), input);
+  }
+
   // Parse the argument from the specified match result
   public abstract T parseFromMatchResult(MatchResult m) throws ArgumentException;
 
@@ -23,10 +29,10 @@ public interface PatternArgumentType<T> extends StringArgumentType<T>
       if (this.getPattern() == null)
         return this.parseFromMatchResult(new SimpleMatchResult(input));
 
-      var m = this.getPattern().matcher(input);
-      if (!m.matches())
+      var m = this.matchPattern(input);
+      if (m == null)
         throw new ArgumentTypeMismatchException(this, input);
-      return this.parseFromMatchResult(m.toMatchResult());
+      return this.parseFromMatchResult(m);
     }
     catch (IllegalArgumentException ex)
     {
@@ -34,12 +40,39 @@ public interface PatternArgumentType<T> extends StringArgumentType<T>
     }
   }
 
+  // Try to parse the argument from the specified string without throwing
+  public default ParseResult<T> tryParseFromString(String input)
+  {
+    try
+    {
+      if (this.getPattern() == null)
+        return ParseResult.success(this.parseFromMatchResult(new SimpleMatchResult(input)));
+
+      var m = this.matchPattern(input);
+      if (m == null)
+        return ParseResult.failure(ParseFailure.typeMismatch(this, input));
+      return ParseResult.success(this.parseFromMatchResult(m));
+    }
+    catch (ArgumentException ex)
+    {
+      return ParseResult.failure(ParseFailure.of(ex));
+    }
+    catch (IllegalArgumentException ex)
+    {
+      return ParseResult.failure(ParseFailure.typeMismatch(this, input));
+    }
+  }
+
 
   // Return a pattern argument type using the specified match result parser
-  public static <T> PatternArgumentType<T> of(Class<T> type, String typeName, Pattern pattern, ArgumentTypeFunction<MatchResult, T> parser, Stream<String> suggestions)
+  public static <T> PatternArgumentType<T> of(Class<T> type, String typeName, Pattern pattern, ArgumentTypeFunction<MatchResult, T> parser, SuggestionSource suggestions)
   {
     return new PatternArgumentType<T>()
     {
+      // The validator for the pattern, which is resolved once when the argument type is created
+      private final PatternValidator validator = PatternValidator.forPattern(pattern);
+
+
       @Override
       public Class<T> getType()
       {
@@ -58,6 +91,12 @@ public interface PatternArgumentType<T> extends StringArgumentType<T>
         return pattern;
       }
 
+      @Override
+      public MatchResult matchPattern(String input)
+      {
+        return PatternValidator.match(this.validator, pattern, input);
+      }
+
       @Override
       public T parseFromMatchResult(MatchResult matchResult) throws ArgumentException
       {
@@ -67,20 +106,38 @@ public interface PatternArgumentType<T> extends StringArgumentType<T>
       @Override
       public Stream<String> suggestFromString(String input)
       {
-        return Suggestion.find(input, suggestions);
+        return suggestions.find(input);
       }
     };
   }
 
+  // Return a pattern argument type using the specified match result parser, collecting the suggestions once
+  public static <T> PatternArgumentType<T> of(Class<T> type, String typeName, Pattern pattern, ArgumentTypeFunction<MatchResult, T> parser, Stream<String> suggestions)
+  {
+    return of(type, typeName, pattern, parser, SuggestionSource.of(suggestions));
+  }
+
   // Return a pattern argument type using the specified matcher group as argument
-  public static <T> PatternArgumentType<T> ofGroup(Class<T> type, String typeName, Pattern pattern, int group, ArgumentTypeFunction<String, T> parser, Stream<String> suggestions)
+  public static <T> PatternArgumentType<T> ofGroup(Class<T> type, String typeName, Pattern pattern, int group, ArgumentTypeFunction<String, T> parser, SuggestionSource suggestions)
   {
     return of(type, typeName, pattern, (m, t) -> parser.apply(m.group(group), t), suggestions);
   }
 
+  // Return a pattern argument type using the specified matcher group as argument, collecting the suggestions once
+  public static <T> PatternArgumentType<T> ofGroup(Class<T> type, String typeName, Pattern pattern, int group, ArgumentTypeFunction<String, T> parser, Stream<String> suggestions)
+  {
+    return ofGroup(type, typeName, pattern, group, parser, SuggestionSource.of(suggestions));
+  }
+
   // Return a pattern argument type using the whole match as argument
-  public static <T> PatternArgumentType<T> ofMatch(Class<T> type, String typeName, Pattern pattern, ArgumentTypeFunction<String, T> parser, Stream<String> suggestions)
+  public static <T> PatternArgumentType<T> ofMatch(Class<T> type, String typeName, Pattern pattern, ArgumentTypeFunction<String, T> parser, SuggestionSource suggestions)
   {
     return ofGroup(type, typeName, pattern, 0, parser, suggestions);
   }
+
+  // Return a pattern argument type using the whole match as argument, collecting the suggestions once
+  public static <T> PatternArgumentType<T> ofMatch(Class<T> type, String typeName, Pattern pattern, ArgumentTypeFunction<String, T> parser, Stream<String> suggestions)
+  {
+    return ofMatch(type, typeName, pattern, parser, SuggestionSource.of(suggestions));
+  }
 }
@@ -4,14 +4,20 @@ import java.util.regex.MatchResult;
 import java.util.regex.Pattern;
 import java.util.stream.Collector;
 import java.util.stream.Stream;
-import dev.danae.common.commands.Suggestion;
+import dev.danae.common.commands.SuggestionSource;
 
 
 public interface PatternListArgumentType<T, C> extends StringListArgumentType<C>
 {
-  // Return the pattern for the argument type
+  // Return the pattern for the argument type, which is validated without a matcher if it is one of the built-in patterns in ArgumentType
   public Pattern getPattern();
 
+  // Return the match result of the whole specified input against the pattern, or null if the input does not match
+  public default MatchResult matchPattern(String input)
+  {
+    return PatternValidator.match(this.getPattern(), input);
+  }
+
   // Return the collector for the argument type
   public Collector<T, ?, C> getCollector();
 
@@ -28,10 +34,10 @@ public interface PatternListArgumentType<T, C> extends StringListArgumentType<C>
     {
       try
       {
-        var m = this.getPattern().matcher(input);
-        if (!m.matches())
+        var m = this.matchPattern(input);
+        if (m == null)
           throw new ArgumentTypeMismatchException(this, input);
-        builder.add(this.parseFromMatchResult(m.toMatchResult()));
+        builder.add(this.parseFromMatchResult(m));
       }
       catch (IllegalArgumentException ex)
       {
@@ -44,10 +50,14 @@ public interface PatternListArgumentType<T, C> extends StringListArgumentType<C>
 
 
   // Return a pattern list argument type using the specified match result parser
-  public static <T, C> PatternListArgumentType<T, C> of(Class<C> type, String typeName, Pattern pattern, String delimiter, ArgumentTypeFunction<MatchResult, T> parser, Collector<T, ?, C> collector, Stream<String> suggestions)
+  public static <T, C> PatternListArgumentType<T, C> of(Class<C> type, String typeName, Pattern pattern, String delimiter, ArgumentTypeFunction<MatchResult, T> parser, Collector<T, ?, C> collector, SuggestionSource suggestions)
   {
     return new PatternListArgumentType<T, C>()
     {
+      // The validator for the pattern, which is resolved once when the argument type is created
+      private final PatternValidator validator = PatternValidator.forPattern(pattern);
+
+
       @Override
       public Class<C> getType()
       {
@@ -66,6 +76,12 @@ public interface PatternListArgumentType<T, C> extends StringListArgumentType<C>
         return pattern;
       }
 
+      @Override
+      public MatchResult matchPattern(String input)
+      {
+        return PatternValidator.match(this.validator, pattern, input);
+      }
+
       @Override
       public Collector<T, ?, C> getCollector()
       {
@@ -87,20 +103,38 @@ public interface PatternListArgumentType<T, C> extends StringListArgumentType<C>
       @Override
       public Stream<String> suggestFromStringList(String input)
       {
-        return Suggestion.find(input, suggestions);
+        return suggestions.find(input);
       }
     };
   }
 
+  // Return a pattern list argument type using the specified match result parser, collecting the suggestions once
+  public static <T, C> PatternListArgumentType<T, C> of(Class<C> type, String typeName, Pattern pattern, String delimiter, ArgumentTypeFunction<MatchResult, T> parser, Collector<T, ?, C> collector, Stream<String> suggestions)
+  {
+    return of(type, typeName, pattern, delimiter, parser, collector, SuggestionSource.of(suggestions));
+  }
+
   // Return a pattern list argument type using the specified matcher group as argument
-  public static <T, C> PatternListArgumentType<T, C> ofGroup(Class<C> type, String typeName, Pattern pattern, String delimiter, int group, ArgumentTypeFunction<String, T> parser, Collector<T, ?, C> collector, Stream<String> suggestions)
+  public static <T, C> PatternListArgumentType<T, C> ofGroup(Class<C> type, String typeName, Pattern pattern, String delimiter, int group, ArgumentTypeFunction<String, T> parser, Collector<T, ?, C> collector, SuggestionSource suggestions)
   {
     return of(type, typeName, pattern, delimiter, (m, t) -> parser.apply(m.group(group), t), collector, suggestions);
   }
 
+  // Return a pattern list argument type using the specified matcher group as argument, collecting the suggestions once
+  public static <T, C> PatternListArgumentType<T, C> ofGroup(Class<C> type, String typeName, Pattern pattern, String delimiter, int group, ArgumentTypeFunction<String, T> parser, Collector<T, ?, C> collector, Stream<String> suggestions)
+  {
+    return ofGroup(type, typeName, pattern, delimiter, group, parser, collector, SuggestionSource.of(suggestions));
+  }
+
   // Return a pattern list argument type using the whole match as argument
-  public static <T, C> PatternListArgumentType<T, C> ofMatch(Class<C> type, String typeName, Pattern pattern, String delimiter, ArgumentTypeFunction<String, T> parser, Collector<T, ?, C> collector, Stream<String> suggestions)
+  public static <T, C> PatternListArgumentType<T, C> ofMatch(Class<C> type, String typeName, Pattern pattern, String delimiter, ArgumentTypeFunction<String, T> parser, Collector<T, ?, C> collector, SuggestionSource suggestions)
   {
     return ofGroup(type, typeName, pattern, delimiter, 0, parser, collector, suggestions);
   }
+
+  // Return a pattern list argument type using the whole match as argument, collecting the suggestions once
+  public static <T, C> PatternListArgumentType<T, C> ofMatch(Class<C> type, String typeName, Pattern pattern, String delimiter, ArgumentTypeFunction<String, T> parser, Collector<T, ?, C> collector, Stream<String> suggestions)
+  {
+    return ofMatch(type, typeName, pattern, delimiter, parser, collector, SuggestionSource.of(suggestions));
+  }
 }
@@ -0,0 +1,237 @@
+package dev.danae.common.commands.arguments;
+
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
+
+
+enum PatternValidator
+{
+  // Validator for IDENTIFIER_PATTERN
+  IDENTIFIER(ArgumentType.IDENTIFIER_PATTERN)
+  {
+    @Override
+    public MatchResult match(String input)
+    {
+      return isIdentifier(input) ? new SimpleMatchResult(input) : null;
+    }
+  },
+
+  // Validator for NAMESPACED_KEY_PATTERN
+  NAMESPACED_KEY(ArgumentType.NAMESPACED_KEY_PATTERN)
+  {
+    @Override
+    public MatchResult match(String input)
+    {
+      return isNamespacedKey(input) ? new SimpleMatchResult(input) : null;
+    }
+  },
+
+  // Validator for INT_PATTERN
+  INT(ArgumentType.INT_PATTERN)
+  {
+    @Override
+    public MatchResult match(String input)
+    {
+      return isInt(input, true) ? new SimpleMatchResult(input) : null;
+    }
+  },
+
+  // Validator for UNSIGNED_INT_PATTERN
+  UNSIGNED_INT(ArgumentType.UNSIGNED_INT_PATTERN)
+  {
+    @Override
+    public MatchResult match(String input)
+    {
+      return isInt(input, false) ? new SimpleMatchResult(input) : null;
+    }
+  },
+
+  // Validator for FLOAT_PATTERN, which reports the fractional part as the first group
+  FLOAT(ArgumentType.FLOAT_PATTERN)
+  {
+    @Override
+    public MatchResult match(String input)
+    {
+      var point = matchFloat(input);
+      if (point == -1)
+        return null;
+      else if (point == input.length())
+        return new SimpleMatchResult(input, new int[] { -1, -1 });
+      else
+        return new SimpleMatchResult(input, new int[] { point, input.length() });
+    }
+  };
+
+
+  // Flags for the character classes of the built-in patterns
+  private static final byte IDENTIFIER_START = 0x01;
+  private static final byte IDENTIFIER_PART = 0x02;
+  private static final byte NAMESPACE = 0x04;
+  private static final byte KEY = 0x08;
+  private static final byte DIGIT = 0x10;
+
+  // Lookup table that contains the character classes of each ASCII character
+  private static final byte[] CHARACTER_CLASSES = new byte[128];
+  static
+  {
+    for (var c = 'a'; c <= 'z'; c ++)
+    {
+      CHARACTER_CLASSES[c] = IDENTIFIER_START | IDENTIFIER_PART | NAMESPACE | KEY;
+      CHARACTER_CLASSES[Character.toUpperCase(c)] = IDENTIFIER_START | IDENTIFIER_PART | NAMESPACE | KEY;
+    }
+    for (var c = '0'; c <= '9'; c ++)
+      CHARACTER_CLASSES[c] = IDENTIFIER_PART | NAMESPACE | KEY | DIGIT;
+
+    CHARACTER_CLASSES['_'] = IDENTIFIER_START | IDENTIFIER_PART | NAMESPACE | KEY;
+    CHARACTER_CLASSES['.'] = NAMESPACE | KEY;
+    CHARACTER_CLASSES['-'] = NAMESPACE | KEY;
+    CHARACTER_CLASSES['/'] = KEY;
+  }
+
+  // Array of all validators, which is cached because values() clones the array on every call
+  private static final PatternValidator[] VALUES = values();
+
+
+  // The pattern that is validated
+  private final Pattern pattern;
+
+
+  // Constructor
+  private PatternValidator(Pattern pattern)
+  {
+    this.pattern = pattern;
+  }
+
+
+  // Return the pattern that is validated
+  public Pattern getPattern()
+  {
+    return this.pattern;
+  }
+
+  // Return the match result of the whole specified input, or null if the input does not match the pattern
+  public abstract MatchResult match(String input);
+
+
+  // Return the validator for the specified pattern if it is one of the built-in pattern instances, or null otherwise
+  public static PatternValidator forPattern(Pattern pattern)
+  {
+    if (pattern == null)
+      return null;
+    for (var validator : VALUES)
+    {
+      if (validator.pattern == pattern)
+        return validator;
+    }
+    return null;
+  }
+
+  // Return the match result of the whole specified input against the specified pattern, or null if the input does not match, using a validator for the built-in patterns and a matcher otherwise
+  public static MatchResult match(Pattern pattern, String input)
+  {
+    return match(forPattern(pattern), pattern, input);
+  }
+
+  // Return the match result of the whole specified input against the specified pattern, or null if the input does not match, using the specified already resolved validator if it is not null
+  public static MatchResult match(PatternValidator validator, Pattern pattern, String input)
+  {
+    if (validator != null)
+      return validator.match(input);
+
+    var m = pattern.matcher(input);
+    return m.matches() ? m.toMatchResult() : null;
+  }
+
+
+  // Return if the specified character is in the specified character classes
+  private static boolean is(char c, byte characterClass)
+  {
+    return c < 128 && (CHARACTER_CLASSES[c] & characterClass) != 0;
+  }
+
+  // Return if the specified input matches IDENTIFIER_PATTERN
+  public static boolean isIdentifier(CharSequence input)
+  {
+    var length = input.length();
+    if (length == 0 || !is(input.charAt(0), IDENTIFIER_START))
+      return false;
+    for (var i = 1; i < length; i ++)
+    {
+      if (!is(input.charAt(i), IDENTIFIER_PART))
+        return false;
+    }
+    return true;
+  }
+
+  // Return if the specified input matches NAMESPACED_KEY_PATTERN
+  public static boolean isNamespacedKey(CharSequence input)
+  {
+    var length = input.length();
+
+    // Match the namespace up to the first colon
+    var i = 0;
+    while (i < length && is(input.charAt(i), NAMESPACE))
+      i ++;
+    if (i == 0 || i >= length - 1 || input.charAt(i) != ':')
+      return false;
+
+    // Match the key after the colon
+    for (i ++; i < length; i ++)
+    {
+      if (!is(input.charAt(i), KEY))
+        return false;
+    }
+    return true;
+  }
+
+  // Return if the specified input matches INT_PATTERN or UNSIGNED_INT_PATTERN
+  public static boolean isInt(CharSequence input, boolean signed)
+  {
+    var length = input.length();
+    if (length == 1 && input.charAt(0) == '0')
+      return true;
+
+    var i = signed && length > 0 && input.charAt(0) == '-' ? 1 : 0;
+    if (i >= length || input.charAt(i) == '0')
+      return false;
+    for (; i < length; i ++)
+    {
+      if (!is(input.charAt(i), DIGIT))
+        return false;
+    }
+    return true;
+  }
+
+  // Return if the specified input matches FLOAT_PATTERN
+  public static boolean isFloat(CharSequence input)
+  {
+    return matchFloat(input) != -1;
+  }
+
+  // Return the index of the decimal point if the specified input matches FLOAT_PATTERN, the length of the input if it has no decimal point, or -1 if it does not match
+  private static int matchFloat(CharSequence input)
+  {
+    var length = input.length();
+
+    // Match the integral part
+    var i = length > 0 && input.charAt(0) == '-' ? 1 : 0;
+    var start = i;
+    while (i < length && is(input.charAt(i), DIGIT))
+      i ++;
+    if (i == start)
+      return -1;
+    if (i == length)
+      return length;
+
+    // Match the fractional part
+    var point = i;
+    if (input.charAt(i ++) != '.' || i == length)
+      return -1;
+    for (; i < length; i ++)
+    {
+      if (!is(input.charAt(i), DIGIT))
+        return -1;
+    }
+    return point;
+  }
+}
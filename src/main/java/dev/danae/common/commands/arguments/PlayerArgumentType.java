@@ -1,12 +1,17 @@
 package dev.danae.common.commands.arguments;
 
 import java.util.stream.Stream;
-import dev.danae.common.commands.Suggestion;
+import dev.danae.common.commands.SuggestionSource;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
 public class PlayerArgumentType implements StringArgumentType<Player> 
 {
+  // The suggestion source for the names of the online players, which are requested for every query
+  private static final SuggestionSource suggestions = SuggestionSource.supplied(() -> Bukkit.getOnlinePlayers().stream()
+    .map(p -> p.getName()));
+
+
   // Return the type of the argument type
   @Override
   public Class<Player> getType()
@@ -35,7 +40,6 @@ public class PlayerArgumentType implements StringArgumentType<Player>
   @Override
   public Stream<String> suggestFromString(String input)
   {
-    return Suggestion.find(input, Bukkit.getOnlinePlayers().stream()
-      .map(p -> p.getName()));
+    return suggestions.find(input);
   }  
 }
@@ -1,25 +1,128 @@
 package dev.danae.common.commands.arguments;
 
+import java.util.Arrays;
+import java.util.Objects;
 import java.util.function.Predicate;
 import java.util.regex.MatchResult;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 
 public class Scanner
 {  
-  // The arguments that will be iterated over
+  // The arguments that will be iterated over, which are created on demand if the scanner scans a raw line
   private final String[] arguments;
+
+  // The raw line that will be scanned, or null if the scanner scans pre-split arguments
+  private final CharSequence line;
+
+  // The ranges of the tokens in the raw line, excluding surrounding quotes
+  private final int[] tokenStarts;
+  private final int[] tokenEnds;
+
+  // Indicates for each token in the raw line if it was quoted
+  private final boolean[] tokenQuoted;
+
+  // The range of the arguments that will be iterated over
+  private final int start;
+  private final int end;
   
   // The current index of the scanner
   private int index;
+
+  // The memo for parse results of argument types, or null if parse results are not memoized
+  private ParseMemo memo = null;
   
   
+  // Constructor for a view over the specified range of arguments that memoizes parse results in the specified memo
+  public Scanner(String[] arguments, int offset, int length, ParseMemo memo)
+  {
+    this(arguments, offset, length);
+
+    if (memo != null)
+    {
+      memo.bind(arguments);
+      this.memo = memo;
+    }
+  }
+
+  // Constructor for a view over the specified range of arguments
+  public Scanner(String[] arguments, int offset, int length)
+  {
+    Objects.checkFromIndexSize(offset, length, arguments.length);
+
+    this.arguments = arguments;
+    this.line = null;
+    this.tokenStarts = null;
+    this.tokenEnds = null;
+    this.tokenQuoted = null;
+    this.start = offset;
+    this.end = offset + length;
+    this.index = offset - 1;
+  }
+
   // Constructor
   public Scanner(String[] arguments)
   {
-    this.arguments = arguments;
+    this(arguments, 0, arguments.length);
+  }
+
+  // Constructor for a raw line, which is split into tokens on runs of whitespace and where double-quoted text is a single token
+  public Scanner(CharSequence line)
+  {
+    Objects.requireNonNull(line, "line must not be null");
+
+    // Tokenize the line once
+    var starts = new int[8];
+    var ends = new int[8];
+    var quoted = new boolean[8];
+    var count = 0;
+    var position = 0;
+    var length = line.length();
+    while (position < length)
+    {
+      if (Character.isWhitespace(line.charAt(position)))
+      {
+        position ++;
+        continue;
+      }
+
+      if (count == starts.length)
+      {
+        starts = Arrays.copyOf(starts, count * 2);
+        ends = Arrays.copyOf(ends, count * 2);
+        quoted = Arrays.copyOf(quoted, count * 2);
+      }
+
+      if (line.charAt(position) == '"')
+      {
+        // A quoted token runs until the closing quote, or until the end of the line if the quote is not closed
+        var tokenEnd = position + 1;
+        while (tokenEnd < length && line.charAt(tokenEnd) != '"')
+          tokenEnd ++;
+        starts[count] = position + 1;
+        quoted[count] = true;
+        ends[count ++] = tokenEnd;
+        position = tokenEnd + 1;
+      }
+      else
+      {
+        var tokenEnd = position;
+        while (tokenEnd < length && !Character.isWhitespace(line.charAt(tokenEnd)))
+          tokenEnd ++;
+        starts[count] = position;
+        ends[count ++] = tokenEnd;
+        position = tokenEnd;
+      }
+    }
+
+    this.arguments = new String[count];
+    this.line = line;
+    this.tokenStarts = starts;
+    this.tokenEnds = ends;
+    this.tokenQuoted = quoted;
+    this.start = 0;
+    this.end = count;
     this.index = -1;
   }
   
@@ -33,19 +136,99 @@ public class Scanner
   // Return if the scanner reached the end of the tokens at the index with the specified lookahead
   public boolean isAtEnd(int lookahead)
   {
-    return this.index + lookahead >= this.arguments.length;
+    return this.index + lookahead >= this.end;
   }
 
   // Return the token that has just been scanned
   public String current()
   {
-    return this.index >= 0  ? this.arguments[this.index] : null;
+    return this.index >= this.start ? this.token(this.index) : null;
   }
 
   // Return the token that will be scanned next
   public String peek()
   {
-    return !this.isAtEnd() ? this.arguments[this.index + 1] : null;
+    return !this.isAtEnd() ? this.token(this.index + 1) : null;
+  }
+
+  // Return the token at the index with the specified lookahead, or null if the scanner reached the end of the tokens
+  public String peek(int lookahead)
+  {
+    return lookahead > 0 && !this.isAtEnd(lookahead) ? this.token(this.index + lookahead) : null;
+  }
+
+  // Return the token at the index with the specified lookahead as a slice, which does not copy the characters if the scanner scans a raw line, or null if the scanner reached the end of the tokens
+  public ArgumentSlice peekSlice(int lookahead)
+  {
+    return lookahead > 0 && !this.isAtEnd(lookahead) ? this.slice(this.index + lookahead, this.index + lookahead + 1) : null;
+  }
+
+  // Advance the scanner over the specified amount of tokens without parsing them
+  public void skip(int amount)
+  {
+    if (amount < 0 || (amount > 0 && this.isAtEnd(amount)))
+      throw new IndexOutOfBoundsException(String.format("Cannot skip %d tokens", amount));
+    this.index += amount;
+  }
+
+  // Return a mark for the current position of the scanner, which can be passed to reset
+  public int mark()
+  {
+    return this.index;
+  }
+
+  // Reset the scanner to the position of the specified mark
+  public void reset(int mark)
+  {
+    if (mark < this.start - 1 || mark >= this.end)
+      throw new IndexOutOfBoundsException(String.format("Invalid mark %d", mark));
+    this.index = mark;
+  }
+
+  // Return if the scanner scans a raw line
+  public boolean isLine()
+  {
+    return this.line != null;
+  }
+
+  // Return the memo for parse results of argument types, or null if parse results are not memoized
+  public ParseMemo getMemo()
+  {
+    return this.memo;
+  }
+
+  // Memoize parse results of argument types in a new memo if the scanner does not have one yet
+  public Scanner memoize()
+  {
+    if (this.memo == null)
+    {
+      this.memo = new ParseMemo();
+      this.memo.bind(this.arguments);
+    }
+    return this;
+  }
+
+
+  // Try to parse an argument of the specified type from the next elements without throwing, reusing an earlier result of the type at the same index if parse results are memoized
+  public <T> ParseResult<T> tryParse(ArgumentType<T> type)
+  {
+    if (this.memo == null)
+      return type.tryParse(this);
+    return this.memo.tryParse(type, this, this.index, this.end);
+  }
+
+  // Parse an argument of the specified type from the next elements, reusing an earlier result of the type at the same index if parse results are memoized
+  public <T> T parse(ArgumentType<T> type) throws ArgumentException
+  {
+    if (this.memo == null)
+      return type.parse(this);
+    return this.tryParse(type).getOrThrow();
+  }
+
+  // Parse an argument of the specified type from the next elements, or return the default value if parsing fails
+  public <T> T parse(ArgumentType<T> type, T defaultValue)
+  {
+    return this.tryParse(type).getOrDefault(defaultValue);
   }
 
   
@@ -71,7 +254,13 @@ public class Scanner
   // Return the next specified amount of elements in the scanner as a stream of strings
   public String takeMany(int amount, String delimiter, String expectedType) throws ArgumentException
   {
-    return this.takeMany(amount, expectedType).collect(Collectors.joining(delimiter));
+    if (amount <= 0)
+      return "";
+
+    var builder = new StringBuilder(this.take(expectedType));
+    for (var i = 1; i < amount; i ++)
+      builder.append(delimiter).append(this.take(expectedType));
+    return builder.toString();
   }
 
   // Return the remaining elements in the scanner as a stream of strings
@@ -86,7 +275,44 @@ public class Scanner
   // Return the remaining elements in the scanner as a stream of strings
   public String takeRemaining(String delimiter, String expectedType) throws ArgumentException
   {
-    return this.takeRemaining(expectedType).collect(Collectors.joining(delimiter));
+    var builder = new StringBuilder();
+    while (!this.isAtEnd())
+    {
+      if (!builder.isEmpty())
+        builder.append(delimiter);
+      builder.append(this.take(expectedType));
+    }
+    return builder.toString();
+  }
+
+
+  // Return the next element in the scanner as a slice, which does not copy the characters if the scanner scans a raw line
+  public ArgumentSlice takeSlice(String expectedType) throws ArgumentException
+  {
+    if (this.isAtEnd())
+      throw new ArgumentException(String.format("Expected %s, but reached end of arguments", expectedType));
+
+    this.index ++;
+    return this.slice(this.index, this.index + 1);
+  }
+
+  // Return the next specified amount of elements in the scanner joined by spaces as a slice, which does not copy the characters if the tokens are separated by single spaces in the raw line
+  public ArgumentSlice takeManySlice(int amount, String expectedType) throws ArgumentException
+  {
+    if (this.isAtEnd(amount))
+      throw new ArgumentException(String.format("Expected %s, but reached end of arguments", expectedType));
+
+    var first = this.index + 1;
+    this.index += amount;
+    return this.slice(first, this.index + 1);
+  }
+
+  // Return the remaining elements in the scanner joined by spaces as a slice, which does not copy the characters if the tokens are separated by single spaces in the raw line
+  public ArgumentSlice takeRemainingSlice(String expectedType) throws ArgumentException
+  {
+    var first = this.index + 1;
+    this.index = Math.max(this.index, this.end - 1);
+    return this.slice(first, this.index + 1);
   }
 
   
@@ -209,9 +435,67 @@ public class Scanner
   // Advance the index while the next token matches the predicate
   public String matchWhile(Predicate<String> predicate, String expectedType) throws ArgumentException
   {
-    var string = "";
+    var builder = new StringBuilder();
+    var blank = true;
     while (this.check(predicate))
-      string += (!string.isBlank() ? " " : "") + this.take(expectedType);
-    return string;
+    {
+      var token = this.take(expectedType);
+      if (!blank)
+        builder.append(' ');
+      builder.append(token);
+      blank = blank && token.isBlank();
+    }
+    return builder.toString();
+  }
+
+
+  // Return the token at the specified index, creating it from the raw line if needed
+  private String token(int index)
+  {
+    var token = this.arguments[index];
+    if (token == null)
+    {
+      token = this.line.subSequence(this.tokenStarts[index], this.tokenEnds[index]).toString();
+      this.arguments[index] = token;
+    }
+    return token;
+  }
+
+  // Return the tokens in the specified range of indices joined by spaces as a slice
+  private ArgumentSlice slice(int from, int to)
+  {
+    if (from >= to)
+      return new ArgumentSlice("");
+
+    // Return a view over the raw line if the range is contiguous, i.e. has no quoted tokens and only single spaces between the tokens
+    if (this.line != null && this.isContiguous(from, to))
+      return new ArgumentSlice(this.line, this.tokenStarts[from], this.tokenEnds[to - 1]);
+
+    if (to - from == 1)
+      return new ArgumentSlice(this.token(from));
+
+    var builder = new StringBuilder(this.token(from));
+    for (var i = from + 1; i < to; i ++)
+      builder.append(' ').append(this.token(i));
+    return new ArgumentSlice(builder.toString());
+  }
+
+  // Return if the tokens in the specified range of indices appear in the raw line exactly as they would be joined by spaces
+  private boolean isContiguous(int from, int to)
+  {
+    for (var i = from; i < to; i ++)
+    {
+      if (this.isQuoted(i) && to - from > 1)
+        return false;
+      if (i > from && (this.tokenStarts[i] != this.tokenEnds[i - 1] + 1 || this.line.charAt(this.tokenEnds[i - 1]) != ' '))
+        return false;
+    }
+    return true;
+  }
+
+  // Return if the token at the specified index is quoted in the raw line
+  private boolean isQuoted(int index)
+  {
+    return this.tokenQuoted[index];
   }
 }
@@ -3,16 +3,30 @@ package dev.danae.common.commands.arguments;
 import java.util.regex.MatchResult;
 
 
-final class SimpleMatchResult implements MatchResult 
+final class SimpleMatchResult implements MatchResult
 {
+  // Array that contains no capturing groups
+  private static final int[] NO_GROUPS = new int[0];
+
+
   // The text of the match result
   private final String text;
 
+  // The start and end offsets of the capturing groups of the match result, or -1 if the group did not participate in the match
+  private final int[] groups;
+
+
+  // Constructor with capturing groups
+  public SimpleMatchResult(String text, int[] groups)
+  {
+    this.text = text;
+    this.groups = groups;
+  }
 
   // Constructor
   public SimpleMatchResult(String text)
   {
-    this.text = text;
+    this(text, NO_GROUPS);
   }
 
 
@@ -27,32 +41,32 @@ final class SimpleMatchResult implements MatchResult
   @Override
   public int start(int group)
   {
-    if (group != 0)
-      throw new IndexOutOfBoundsException("No group " + group);
-    return this.start();
+    if (group == 0)
+      return this.start();
+    return this.groups[this.checkGroup(group) * 2 - 2];
   }
 
   // Return the end of the whole match
   @Override
-  public int end() 
+  public int end()
   {
-    return this.text.length() - 1;
+    return this.text.length();
   }
 
   // Return the end of the specified match group
   @Override
   public int end(int group)
   {
-    if (group != 0)
-      throw new IndexOutOfBoundsException("No group " + group);
-    return this.end();
+    if (group == 0)
+      return this.end();
+    return this.groups[this.checkGroup(group) * 2 - 1];
   }
 
   // Return the group count
   @Override
   public int groupCount()
   {
-    return 0;
+    return this.groups.length / 2;
   }
 
   // Return the whole match
@@ -66,8 +80,18 @@ final class SimpleMatchResult implements MatchResult
   @Override
   public String group(int group)
   {
-    if (group != 0)
+    if (group == 0)
+      return this.group();
+
+    var start = this.start(group);
+    return start > -1 ? this.text.substring(start, this.end(group)) : null;
+  }
+
+  // Check if the specified group exists in the match result
+  private int checkGroup(int group)
+  {
+    if (group < 0 || group > this.groupCount())
       throw new IndexOutOfBoundsException("No group " + group);
-    return this.group();
+    return group;
   }
-}
\ No newline at end of file
+}
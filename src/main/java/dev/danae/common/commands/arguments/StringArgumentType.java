@@ -19,6 +19,31 @@ public interface StringArgumentType<T> extends ArgumentType<T>
     return scanner.take(input -> this.parseFromString(input), this.getTypeName());
   }
 
+  // Try to parse the argument from the specified string without throwing
+  public default ParseResult<T> tryParseFromString(String input)
+  {
+    try
+    {
+      return ParseResult.success(this.parseFromString(input));
+    }
+    catch (ArgumentException ex)
+    {
+      return ParseResult.failure(ParseFailure.of(ex));
+    }
+  }
+
+  // Try to parse an argument from the specified scanner without throwing, only advancing the scanner if parsing succeeds
+  public default ParseResult<T> tryParse(Scanner scanner)
+  {
+    if (scanner.isAtEnd())
+      return ParseResult.failure(ParseFailure.endOfArguments(this));
+
+    var result = this.tryParseFromString(scanner.peek());
+    if (result.isSuccess())
+      scanner.skip(1);
+    return result;
+  }
+
   // Return suggestions for the specified command context and argument
   public default Stream<String> suggest(CommandContext context, int argumentIndex)
   {
@@ -0,0 +1,32 @@
+package dev.danae.common.commands.metrics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+public final class CommandMetrics
+{
+  // The metrics for each command path
+  private final Map<String, CommandPathMetrics> paths = new ConcurrentHashMap<>();
+
+
+  // Return the metrics for the specified command path, creating them if they do not exist yet
+  public CommandPathMetrics getPath(String path)
+  {
+    return this.paths.computeIfAbsent(path, CommandPathMetrics::new);
+  }
+
+  // Return the metrics for all command paths
+  public Collection<CommandPathMetrics> getPaths()
+  {
+    return Collections.unmodifiableCollection(this.paths.values());
+  }
+
+  // Remove the metrics for all command paths
+  public void reset()
+  {
+    this.paths.clear();
+  }
+}
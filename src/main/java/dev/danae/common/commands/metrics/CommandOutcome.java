@@ -0,0 +1,10 @@
+package dev.danae.common.commands.metrics;
+
+public enum CommandOutcome
+{
+  SUCCESS,
+  COMMAND_EXCEPTION,
+  USAGE_EXCEPTION,
+  ERROR,
+  REJECTED,
+}
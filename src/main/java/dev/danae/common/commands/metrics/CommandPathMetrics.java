@@ -0,0 +1,76 @@
+package dev.danae.common.commands.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+
+public final class CommandPathMetrics
+{
+  // The command path of the metrics
+  private final String path;
+
+  // The execution counters for each outcome
+  private final Map<CommandOutcome, LongAdder> executionCounts = new EnumMap<>(CommandOutcome.class);
+
+  // The latency histogram of executions
+  private final LatencyHistogram executionLatency = new LatencyHistogram();
+
+  // The latency histogram of suggestions
+  private final LatencyHistogram suggestionLatency = new LatencyHistogram();
+
+
+  // Constructor
+  public CommandPathMetrics(String path)
+  {
+    this.path = path;
+
+    for (var outcome : CommandOutcome.values())
+      this.executionCounts.put(outcome, new LongAdder());
+  }
+
+
+  // Return the command path of the metrics
+  public String getPath()
+  {
+    return this.path;
+  }
+
+  // Return the number of executions with the specified outcome
+  public long getExecutionCount(CommandOutcome outcome)
+  {
+    return this.executionCounts.get(outcome).sum();
+  }
+
+  // Return the latency histogram of executions
+  public LatencyHistogram getExecutionLatency()
+  {
+    return this.executionLatency;
+  }
+
+  // Return the latency histogram of suggestions
+  public LatencyHistogram getSuggestionLatency()
+  {
+    return this.suggestionLatency;
+  }
+
+
+  // Record an execution with the specified outcome and duration in nanoseconds
+  public void recordExecution(CommandOutcome outcome, long nanos)
+  {
+    this.executionCounts.get(outcome).increment();
+    this.executionLatency.record(nanos);
+  }
+
+  // Record an execution that was rejected before a handler ran, which does not record a latency
+  public void recordRejection()
+  {
+    this.executionCounts.get(CommandOutcome.REJECTED).increment();
+  }
+
+  // Record a suggestion with the specified duration in nanoseconds
+  public void recordSuggestion(long nanos)
+  {
+    this.suggestionLatency.record(nanos);
+  }
+}
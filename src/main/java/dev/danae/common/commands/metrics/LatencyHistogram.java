@@ -0,0 +1,106 @@
+package dev.danae.common.commands.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+
+public final class LatencyHistogram
+{
+  // The number of bits of the linear sub-buckets in each power of two
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+  // The number of buckets, which covers all positive long values
+  private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+
+  // The counts of the buckets
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+  // The total count and sum of the recorded values
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+
+  // The maximal recorded value
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+
+  // Record the specified value in nanoseconds
+  public void record(long value)
+  {
+    if (value < 0)
+      value = 0;
+
+    this.counts.incrementAndGet(bucketIndex(value));
+    this.count.increment();
+    this.sum.add(value);
+    this.max.accumulate(value);
+  }
+
+
+  // Return the number of recorded values
+  public long getCount()
+  {
+    return this.count.sum();
+  }
+
+  // Return the sum of the recorded values in nanoseconds
+  public long getSum()
+  {
+    return this.sum.sum();
+  }
+
+  // Return the maximal recorded value in nanoseconds
+  public long getMax()
+  {
+    return this.max.get();
+  }
+
+  // Return the value in nanoseconds at the specified quantile, which is accurate to within the width of a bucket
+  public long getValueAtQuantile(double quantile)
+  {
+    if (quantile < 0.0 || quantile > 1.0)
+      throw new IllegalArgumentException("quantile must be between 0 and 1");
+
+    var total = 0L;
+    for (var i = 0; i < BUCKET_COUNT; i ++)
+      total += this.counts.get(i);
+    if (total == 0)
+      return 0;
+
+    var rank = Math.max(1, (long)Math.ceil(quantile * total));
+    var cumulative = 0L;
+    for (var i = 0; i < BUCKET_COUNT; i ++)
+    {
+      cumulative += this.counts.get(i);
+      if (cumulative >= rank)
+        return Math.min(bucketUpperBound(i) - 1, this.getMax());
+    }
+    return this.getMax();
+  }
+
+
+  // Return the index of the bucket for the specified value
+  static int bucketIndex(long value)
+  {
+    if (value < 2 * SUB_BUCKET_COUNT)
+      return (int)value;
+
+    var exponent = 63 - Long.numberOfLeadingZeros(value);
+    var shift = exponent - SUB_BUCKET_BITS;
+    return (shift + 1) * SUB_BUCKET_COUNT + (int)(value >>> shift) - SUB_BUCKET_COUNT;
+  }
+
+  // Return the exclusive upper bound of the bucket with the specified index
+  static long bucketUpperBound(int index)
+  {
+    if (index < 2 * SUB_BUCKET_COUNT)
+      return index + 1;
+
+    var shift = index / SUB_BUCKET_COUNT - 1;
+    var mantissa = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+    var upperBound = (long)(mantissa + 1) << shift;
+    return upperBound > 0 ? upperBound : Long.MAX_VALUE;
+  }
+}
@@ -0,0 +1,18 @@
+package dev.danae.common.commands.metrics;
+
+
+@FunctionalInterface
+public interface MetricsExporter
+{
+  // Export the specified metrics to the specified string builder
+  public void export(CommandMetrics metrics, StringBuilder output);
+
+
+  // Export the specified metrics to a string
+  public default String export(CommandMetrics metrics)
+  {
+    var output = new StringBuilder();
+    this.export(metrics, output);
+    return output.toString();
+  }
+}
@@ -0,0 +1,88 @@
+package dev.danae.common.commands.metrics;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+
+public final class MetricsHttpServer implements AutoCloseable
+{
+  // The content type of the exported metrics
+  private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+
+  // The metrics that are exported by the server
+  private final CommandMetrics metrics;
+
+  // The exporter that formats the metrics
+  private final MetricsExporter exporter;
+
+  // The underlying HTTP server
+  private final HttpServer server;
+
+  // The executor that handles requests
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+
+  // Constructor
+  public MetricsHttpServer(InetSocketAddress address, String path, CommandMetrics metrics, MetricsExporter exporter) throws IOException
+  {
+    this.metrics = metrics;
+    this.exporter = exporter;
+
+    this.server = HttpServer.create(address, 0);
+    this.server.createContext(path, this::handle);
+    this.server.setExecutor(this.executor);
+  }
+
+  // Constructor for the Prometheus text format on the default path
+  public MetricsHttpServer(InetSocketAddress address, CommandMetrics metrics) throws IOException
+  {
+    this(address, "/metrics", metrics, new PrometheusTextExporter());
+  }
+
+
+  // Start the server
+  public MetricsHttpServer start()
+  {
+    this.server.start();
+    return this;
+  }
+
+  // Stop the server
+  @Override
+  public void close()
+  {
+    this.server.stop(0);
+    this.executor.shutdown();
+  }
+
+
+  // Handle a request to the server
+  private void handle(HttpExchange exchange) throws IOException
+  {
+    try (exchange)
+    {
+      if (!exchange.getRequestMethod().equals("GET") && !exchange.getRequestMethod().equals("HEAD"))
+      {
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+
+      var body = this.exporter.export(this.metrics).getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+      if (exchange.getRequestMethod().equals("HEAD"))
+      {
+        exchange.sendResponseHeaders(200, -1);
+        return;
+      }
+
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package dev.danae.common.commands.metrics;
+
+import java.util.Comparator;
+
+
+public final class PrometheusTextExporter implements MetricsExporter
+{
+  // The quantiles that are exported for latency summaries
+  private static final double[] QUANTILES = {0.5, 0.9, 0.99, 1.0};
+
+
+  // The prefix of the metric names
+  private final String prefix;
+
+
+  // Constructor
+  public PrometheusTextExporter(String prefix)
+  {
+    this.prefix = prefix;
+  }
+
+  // Constructor with the default prefix
+  public PrometheusTextExporter()
+  {
+    this("command");
+  }
+
+
+  // Export the specified metrics to the specified string builder
+  @Override
+  public void export(CommandMetrics metrics, StringBuilder output)
+  {
+    var paths = metrics.getPaths().stream()
+      .sorted(Comparator.comparing(CommandPathMetrics::getPath))
+      .toList();
+
+    // Export the execution counters
+    var executionsName = this.prefix + "_executions_total";
+    output.append("# HELP ").append(executionsName).append(" Number of command executions by path and outcome\n");
+    output.append("# TYPE ").append(executionsName).append(" counter\n");
+    for (var path : paths)
+    {
+      for (var outcome : CommandOutcome.values())
+      {
+        output.append(executionsName).append("{path=\"");
+        appendEscaped(output, path.getPath());
+        output.append("\",outcome=\"").append(outcome.name().toLowerCase()).append("\"} ").append(path.getExecutionCount(outcome)).append('\n');
+      }
+    }
+
+    // Export the latency summaries
+    var executionLatencyName = this.prefix + "_execution_seconds";
+    output.append("# HELP ").append(executionLatencyName).append(" Latency of command executions by path\n");
+    output.append("# TYPE ").append(executionLatencyName).append(" summary\n");
+    for (var path : paths)
+      appendSummary(output, executionLatencyName, path.getPath(), path.getExecutionLatency());
+
+    var suggestionLatencyName = this.prefix + "_suggestion_seconds";
+    output.append("# HELP ").append(suggestionLatencyName).append(" Latency of command suggestions by path\n");
+    output.append("# TYPE ").append(suggestionLatencyName).append(" summary\n");
+    for (var path : paths)
+      appendSummary(output, suggestionLatencyName, path.getPath(), path.getSuggestionLatency());
+  }
+
+
+  // Append a summary of the specified histogram to the output
+  private static void appendSummary(StringBuilder output, String name, String path, LatencyHistogram histogram)
+  {
+    for (var quantile : QUANTILES)
+    {
+      output.append(name).append("{path=\"");
+      appendEscaped(output, path);
+      output.append("\",quantile=\"").append(quantile).append("\"} ").append(toSeconds(histogram.getValueAtQuantile(quantile))).append('\n');
+    }
+
+    output.append(name).append("_sum{path=\"");
+    appendEscaped(output, path);
+    output.append("\"} ").append(toSeconds(histogram.getSum())).append('\n');
+
+    output.append(name).append("_count{path=\"");
+    appendEscaped(output, path);
+    output.append("\"} ").append(histogram.getCount()).append('\n');
+  }
+
+  // Append the specified label value to the output, escaping it for the text format
+  private static void appendEscaped(StringBuilder output, String value)
+  {
+    for (var i = 0; i < value.length(); i ++)
+    {
+      var c = value.charAt(i);
+      switch (c)
+      {
+        case '\\' -> output.append("\\\\");
+        case '"' -> output.append("\\\"");
+        case '\n' -> output.append("\\n");
+        default -> output.append(c);
+      }
+    }
+  }
+
+  // Convert the specified nanoseconds to seconds
+  private static double toSeconds(long nanos)
+  {
+    return nanos / 1.0e9;
+  }
+}
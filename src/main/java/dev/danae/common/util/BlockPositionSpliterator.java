@@ -0,0 +1,222 @@
+package dev.danae.common.util;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+
+final class BlockPositionSpliterator<T> implements Spliterator<T>
+{
+  // The number of bits of a block coordinate within a chunk section
+  private static final int SECTION_SHIFT = 4;
+
+  // The characteristics of the spliterator
+  private static final int CHARACTERISTICS = ORDERED | DISTINCT | NONNULL | IMMUTABLE | SIZED | SUBSIZED;
+
+
+  // The inclusive block boundaries of the region
+  private final int minX;
+  private final int minY;
+  private final int minZ;
+  private final int maxX;
+  private final int maxY;
+  private final int maxZ;
+
+  // The minimal section coordinates and the number of sections along the x and z axes of the region
+  private final int minSectionX;
+  private final int minSectionY;
+  private final int minSectionZ;
+  private final int sectionsX;
+  private final int sectionsZ;
+
+  // The function that maps a block position to an element
+  private final IntTriFunction<T> mapper;
+
+  // The range of linear section indices that remain to be traversed, ordered by y, x and z
+  private int section;
+  private final int endSection;
+
+  // The number of block positions that remain to be traversed
+  private long remaining;
+
+  // The position of the next block in the current section, which is only valid if a section has been started
+  private boolean started = false;
+  private int x;
+  private int y;
+  private int z;
+
+  // The inclusive block boundaries of the current section
+  private int sectionMinX;
+  private int sectionMinZ;
+  private int sectionMaxX;
+  private int sectionMaxY;
+  private int sectionMaxZ;
+
+
+  // Constructor for the whole region between the specified inclusive block boundaries
+  public BlockPositionSpliterator(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, IntTriFunction<T> mapper)
+  {
+    this.minX = minX;
+    this.minY = minY;
+    this.minZ = minZ;
+    this.maxX = maxX;
+    this.maxY = maxY;
+    this.maxZ = maxZ;
+    this.minSectionX = minX >> SECTION_SHIFT;
+    this.minSectionY = minY >> SECTION_SHIFT;
+    this.minSectionZ = minZ >> SECTION_SHIFT;
+    this.sectionsX = (maxX >> SECTION_SHIFT) - this.minSectionX + 1;
+    this.sectionsZ = (maxZ >> SECTION_SHIFT) - this.minSectionZ + 1;
+    this.mapper = mapper;
+
+    var empty = minX > maxX || minY > maxY || minZ > maxZ;
+    this.section = 0;
+    this.endSection = empty ? 0 : ((maxY >> SECTION_SHIFT) - this.minSectionY + 1) * this.sectionsX * this.sectionsZ;
+    this.remaining = empty ? 0 : (long)(maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+  }
+
+  // Constructor for a range of sections of the region of the specified spliterator
+  private BlockPositionSpliterator(BlockPositionSpliterator<T> parent, int section, int endSection)
+  {
+    this.minX = parent.minX;
+    this.minY = parent.minY;
+    this.minZ = parent.minZ;
+    this.maxX = parent.maxX;
+    this.maxY = parent.maxY;
+    this.maxZ = parent.maxZ;
+    this.minSectionX = parent.minSectionX;
+    this.minSectionY = parent.minSectionY;
+    this.minSectionZ = parent.minSectionZ;
+    this.sectionsX = parent.sectionsX;
+    this.sectionsZ = parent.sectionsZ;
+    this.mapper = parent.mapper;
+
+    this.section = section;
+    this.endSection = endSection;
+    this.remaining = this.countPositions(section, endSection);
+  }
+
+
+  // Advance to the next element and provide it to the specified action
+  @Override
+  public boolean tryAdvance(Consumer<? super T> action)
+  {
+    if (this.remaining == 0)
+      return false;
+    if (!this.started)
+      this.startSection();
+
+    action.accept(this.mapper.apply(this.x, this.y, this.z));
+    this.remaining --;
+
+    // Advance to the next position, which is in the next section if the current section is exhausted
+    if (++ this.z > this.sectionMaxZ)
+    {
+      this.z = this.sectionMinZ;
+      if (++ this.x > this.sectionMaxX)
+      {
+        this.x = this.sectionMinX;
+        if (++ this.y > this.sectionMaxY)
+        {
+          this.section ++;
+          this.started = false;
+        }
+      }
+    }
+    return true;
+  }
+
+  // Provide all remaining elements to the specified action
+  @Override
+  public void forEachRemaining(Consumer<? super T> action)
+  {
+    while (this.section < this.endSection)
+    {
+      if (!this.started)
+        this.startSection();
+
+      for (; this.y <= this.sectionMaxY; this.y ++, this.x = this.sectionMinX)
+      {
+        for (; this.x <= this.sectionMaxX; this.x ++, this.z = this.sectionMinZ)
+        {
+          for (; this.z <= this.sectionMaxZ; this.z ++)
+            action.accept(this.mapper.apply(this.x, this.y, this.z));
+        }
+      }
+
+      this.section ++;
+      this.started = false;
+    }
+    this.remaining = 0;
+  }
+
+  // Split off the first half of the remaining sections, or return null if there are not enough sections to split
+  @Override
+  public Spliterator<T> trySplit()
+  {
+    if (this.started || this.endSection - this.section < 2)
+      return null;
+
+    var middle = this.section + (this.endSection - this.section) / 2;
+    var prefix = new BlockPositionSpliterator<>(this, this.section, middle);
+    this.section = middle;
+    this.remaining -= prefix.remaining;
+    return prefix;
+  }
+
+  // Return the number of remaining elements
+  @Override
+  public long estimateSize()
+  {
+    return this.remaining;
+  }
+
+  // Return the characteristics of the spliterator
+  @Override
+  public int characteristics()
+  {
+    return CHARACTERISTICS;
+  }
+
+
+  // Start traversing the current section at its first block position
+  private void startSection()
+  {
+    var sectionZ = this.section % this.sectionsZ;
+    var sectionX = (this.section / this.sectionsZ) % this.sectionsX;
+    var sectionY = this.section / this.sectionsZ / this.sectionsX;
+
+    var sectionMinY = Math.max(this.minY, (this.minSectionY + sectionY) << SECTION_SHIFT);
+    this.sectionMinX = Math.max(this.minX, (this.minSectionX + sectionX) << SECTION_SHIFT);
+    this.sectionMinZ = Math.max(this.minZ, (this.minSectionZ + sectionZ) << SECTION_SHIFT);
+    this.sectionMaxX = Math.min(this.maxX, ((this.minSectionX + sectionX + 1) << SECTION_SHIFT) - 1);
+    this.sectionMaxY = Math.min(this.maxY, ((this.minSectionY + sectionY + 1) << SECTION_SHIFT) - 1);
+    this.sectionMaxZ = Math.min(this.maxZ, ((this.minSectionZ + sectionZ + 1) << SECTION_SHIFT) - 1);
+
+    this.x = this.sectionMinX;
+    this.y = sectionMinY;
+    this.z = this.sectionMinZ;
+    this.started = true;
+  }
+
+  // Return the number of block positions in the specified range of linear section indices
+  private long countPositions(int fromSection, int toSection)
+  {
+    var count = 0L;
+    for (var s = fromSection; s < toSection; s ++)
+    {
+      var sectionZ = s % this.sectionsZ;
+      var sectionX = (s / this.sectionsZ) % this.sectionsX;
+      var sectionY = s / this.sectionsZ / this.sectionsX;
+      count += (long)this.sectionLength(this.minX, this.maxX, this.minSectionX + sectionX)
+        * this.sectionLength(this.minY, this.maxY, this.minSectionY + sectionY)
+        * this.sectionLength(this.minZ, this.maxZ, this.minSectionZ + sectionZ);
+    }
+    return count;
+  }
+
+  // Return the number of block coordinates between the specified inclusive boundaries that lie in the specified section
+  private int sectionLength(int min, int max, int section)
+  {
+    return Math.min(max, ((section + 1) << SECTION_SHIFT) - 1) - Math.max(min, section << SECTION_SHIFT) + 1;
+  }
+}
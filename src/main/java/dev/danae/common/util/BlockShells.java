@@ -0,0 +1,137 @@
+package dev.danae.common.util;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import org.bukkit.Location;
+import org.bukkit.Material;
+
+
+final class BlockShells
+{
+  // Private constructor
+  private BlockShells()
+  {
+  }
+
+
+  // Perform the specified action for the block positions between the specified inclusive boundaries in shells of increasing Chebyshev distance around the specified center, stopping before the first shell for which the predicate returns false
+  public static void walk(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, int centerX, int centerY, int centerZ, IntPredicate shellPredicate, IntTriConsumer action)
+  {
+    if (minX > maxX || minY > maxY || minZ > maxZ)
+      return;
+
+    // Calculate the shell that contains the furthest corner of the boundaries
+    var maxShell = Math.max(Math.max(Math.max(centerX - minX, maxX - centerX), Math.max(centerY - minY, maxY - centerY)), Math.max(centerZ - minZ, maxZ - centerZ));
+
+    for (var d = Math.max(0, distanceOutside(minX, maxX, centerX, minY, maxY, centerY, minZ, maxZ, centerZ)); d <= maxShell; d ++)
+    {
+      if (!shellPredicate.test(d))
+        return;
+
+      // Walk the positions of the shell that lie within the boundaries
+      var fromY = Math.max(minY, centerY - d);
+      var toY = Math.min(maxY, centerY + d);
+      var fromX = Math.max(minX, centerX - d);
+      var toX = Math.min(maxX, centerX + d);
+      var fromZ = Math.max(minZ, centerZ - d);
+      var toZ = Math.min(maxZ, centerZ + d);
+      for (var y = fromY; y <= toY; y ++)
+      {
+        var onYFace = y == centerY - d || y == centerY + d;
+        for (var x = fromX; x <= toX; x ++)
+        {
+          if (onYFace || x == centerX - d || x == centerX + d)
+          {
+            // The whole row lies on the shell
+            for (var z = fromZ; z <= toZ; z ++)
+              action.accept(x, y, z);
+          }
+          else
+          {
+            // Only the ends of the row lie on the shell
+            if (centerZ - d >= minZ && centerZ - d <= maxZ)
+              action.accept(x, y, centerZ - d);
+            if (d > 0 && centerZ + d >= minZ && centerZ + d <= maxZ)
+              action.accept(x, y, centerZ + d);
+          }
+        }
+      }
+    }
+  }
+
+  // Return the position of the block between the specified inclusive boundaries whose material matches the specified filter that is nearest to the specified location, or null if there is no such block
+  public static int[] findNearest(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, Location loc, IntTriFunction<Material> types, Predicate<Material> filter)
+  {
+    var nearest = new int[3];
+    var nearestDistance = new double[] { Double.POSITIVE_INFINITY };
+    walk(minX, minY, minZ, maxX, maxY, maxZ, loc.getBlockX(), loc.getBlockY(), loc.getBlockZ(),
+      d -> minDistanceSquared(d) < nearestDistance[0],
+      (x, y, z) -> {
+        var material = types.apply(x, y, z);
+        if (material == null || !filter.test(material))
+          return;
+
+        var distance = distanceSquared(x, y, z, loc);
+        if (distance < nearestDistance[0])
+        {
+          nearestDistance[0] = distance;
+          nearest[0] = x;
+          nearest[1] = y;
+          nearest[2] = z;
+        }
+      });
+    return nearestDistance[0] < Double.POSITIVE_INFINITY ? nearest : null;
+  }
+
+  // Return a map of each of the specified materials to the position of the block between the specified inclusive boundaries with that material that is nearest to the specified location, omitting materials for which there is no such block
+  public static Map<Material, int[]> findNearestPerMaterial(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, Location loc, IntTriFunction<Material> types, Set<Material> materials)
+  {
+    var nearest = new EnumMap<Material, int[]>(Material.class);
+    var nearestDistances = new EnumMap<Material, Double>(Material.class);
+    walk(minX, minY, minZ, maxX, maxY, maxZ, loc.getBlockX(), loc.getBlockY(), loc.getBlockZ(),
+      d -> nearestDistances.size() < materials.size() || nearestDistances.values().stream().anyMatch(distance -> minDistanceSquared(d) < distance),
+      (x, y, z) -> {
+        var material = types.apply(x, y, z);
+        if (material == null || !materials.contains(material))
+          return;
+
+        var distance = distanceSquared(x, y, z, loc);
+        var nearestDistance = nearestDistances.get(material);
+        if (nearestDistance == null || distance < nearestDistance)
+        {
+          nearestDistances.put(material, distance);
+          nearest.put(material, new int[] { x, y, z });
+        }
+      });
+    return nearest;
+  }
+
+
+  // Return a lower bound of the squared distance from a location to the blocks in the shell with the specified Chebyshev distance around the block of that location
+  private static double minDistanceSquared(int shell)
+  {
+    var distance = Math.max(0, shell - 1);
+    return (double)distance * distance;
+  }
+
+  // Return the squared distance from the specified block position to the specified location
+  private static double distanceSquared(int x, int y, int z, Location loc)
+  {
+    var dx = x - loc.getX();
+    var dy = y - loc.getY();
+    var dz = z - loc.getZ();
+    return dx * dx + dy * dy + dz * dz;
+  }
+
+  // Return the Chebyshev distance from the specified center to the nearest position between the specified inclusive boundaries
+  private static int distanceOutside(int minX, int maxX, int centerX, int minY, int maxY, int centerY, int minZ, int maxZ, int centerZ)
+  {
+    var dx = Math.max(0, Math.max(minX - centerX, centerX - maxX));
+    var dy = Math.max(0, Math.max(minY - centerY, centerY - maxY));
+    var dz = Math.max(0, Math.max(minZ - centerZ, centerZ - maxZ));
+    return Math.max(dx, Math.max(dy, dz));
+  }
+}
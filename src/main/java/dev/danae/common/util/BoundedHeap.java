@@ -0,0 +1,142 @@
+package dev.danae.common.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+public final class BoundedHeap<T>
+{
+  // The initial capacity of the heap, which grows up to the maximum capacity as needed
+  private static final int INITIAL_CAPACITY = 16;
+
+
+  // The keys and elements of the heap, with the element with the highest key at the root
+  private long[] keys;
+  private Object[] elements;
+
+  // The maximum number of elements in the heap
+  private final int capacity;
+
+  // The number of elements in the heap
+  private int size = 0;
+
+  // The number of elements that have been offered to the heap
+  private int offeredCount = 0;
+
+
+  // Constructor
+  public BoundedHeap(int capacity)
+  {
+    if (capacity < 0)
+      throw new IllegalArgumentException("capacity must not be negative");
+
+    this.capacity = capacity;
+    this.keys = new long[Math.min(capacity, INITIAL_CAPACITY)];
+    this.elements = new Object[this.keys.length];
+  }
+
+
+  // Return the number of elements in the heap
+  public int size()
+  {
+    return this.size;
+  }
+
+  // Return the number of elements that have been offered to the heap
+  public int getOfferedCount()
+  {
+    return this.offeredCount;
+  }
+
+
+  // Offer an element with the specified key to the heap, which keeps the elements with the lowest keys
+  public void offer(T element, long key)
+  {
+    this.offeredCount ++;
+
+    if (this.size < this.capacity)
+    {
+      // Grow the arrays if they are full
+      if (this.size == this.keys.length)
+      {
+        var length = (int)Math.min(this.capacity, Math.max(INITIAL_CAPACITY, 2L * this.keys.length));
+        this.keys = Arrays.copyOf(this.keys, length);
+        this.elements = Arrays.copyOf(this.elements, length);
+      }
+
+      // Add the element and sift it up
+      var index = this.size ++;
+      while (index > 0)
+      {
+        var parent = (index - 1) >>> 1;
+        if (this.keys[parent] >= key)
+          break;
+        this.keys[index] = this.keys[parent];
+        this.elements[index] = this.elements[parent];
+        index = parent;
+      }
+      this.keys[index] = key;
+      this.elements[index] = element;
+    }
+    else if (this.size > 0 && key < this.keys[0])
+    {
+      // Replace the element with the highest key and sift it down
+      this.siftDown(element, key, this.size);
+    }
+  }
+
+  // Offer an element with the specified non-negative key, such as a squared distance, to the heap, which keeps the elements with the lowest keys
+  public void offer(T element, double key)
+  {
+    // The bits of non-negative doubles are ordered like the doubles themselves, where adding zero turns a negative zero into a positive zero
+    this.offer(element, Double.doubleToLongBits(key + 0.0));
+  }
+
+  // Return the elements of the heap ordered from lowest to highest key, which empties the heap
+  @SuppressWarnings("unchecked")
+  public List<T> drain()
+  {
+    // Repeatedly move the element with the highest key to the end of the heap
+    var count = this.size;
+    for (var end = count - 1; end > 0; end --)
+    {
+      var key = this.keys[end];
+      var element = this.elements[end];
+      this.keys[end] = this.keys[0];
+      this.elements[end] = this.elements[0];
+      this.siftDown(element, key, end);
+    }
+    this.size = 0;
+
+    var list = new ArrayList<T>(count);
+    for (var i = 0; i < count; i ++)
+    {
+      list.add((T)this.elements[i]);
+      this.elements[i] = null;
+    }
+    return list;
+  }
+
+
+  // Place the specified element at the root of the heap with the specified size and sift it down
+  private void siftDown(Object element, long key, int size)
+  {
+    var index = 0;
+    while (true)
+    {
+      var child = 2 * index + 1;
+      if (child >= size)
+        break;
+      if (child + 1 < size && this.keys[child + 1] > this.keys[child])
+        child ++;
+      if (this.keys[child] <= key)
+        break;
+      this.keys[index] = this.keys[child];
+      this.elements[index] = this.elements[child];
+      index = child;
+    }
+    this.keys[index] = key;
+    this.elements[index] = element;
+  }
+}
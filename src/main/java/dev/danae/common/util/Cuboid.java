@@ -3,14 +3,23 @@ package dev.danae.common.util;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
 import org.bukkit.util.BoundingBox;
 
 
@@ -67,6 +76,32 @@ public final class Cuboid
     return new Location(this.world, Math.ceil(this.bounds.getMaxX()), Math.ceil(this.bounds.getMaxY()), Math.ceil(this.bounds.getMaxZ()));
   }
   
+  // Return the inclusive block boundaries of the cuboid, which match the minimal and maximal corners
+  private int getMinBlockX()
+  {
+    return (int)Math.floor(this.bounds.getMinX());
+  }
+  private int getMinBlockY()
+  {
+    return (int)Math.floor(this.bounds.getMinY());
+  }
+  private int getMinBlockZ()
+  {
+    return (int)Math.floor(this.bounds.getMinZ());
+  }
+  private int getMaxBlockX()
+  {
+    return (int)Math.ceil(this.bounds.getMaxX());
+  }
+  private int getMaxBlockY()
+  {
+    return (int)Math.ceil(this.bounds.getMaxY());
+  }
+  private int getMaxBlockZ()
+  {
+    return (int)Math.ceil(this.bounds.getMaxZ());
+  }
+  
   // Return the center of the cuboid
   public Location getCenter()
   {
@@ -74,18 +109,36 @@ public final class Cuboid
   }
   
   
-  // Return a stream of the locations in the cuboid
+  // Return a lazy stream of the values of the specified function for the block positions in the cuboid, which are ordered by chunk section and split by chunk section for parallel streams
+  public <T> Stream<T> blockPositionsStream(IntTriFunction<T> mapper)
+  {
+    if (mapper == null)
+      throw new NullPointerException("mapper must not be null");
+
+    return StreamSupport.stream(new BlockPositionSpliterator<>(this.getMinBlockX(), this.getMinBlockY(), this.getMinBlockZ(), this.getMaxBlockX(), this.getMaxBlockY(), this.getMaxBlockZ(), mapper), false);
+  }
+
+  // Perform the specified action for each block position in the cuboid without allocating per block
+  public void forEachBlockPosition(IntTriConsumer action)
+  {
+    if (action == null)
+      throw new NullPointerException("action must not be null");
+
+    var minX = this.getMinBlockX();
+    var minZ = this.getMinBlockZ();
+    var maxX = this.getMaxBlockX();
+    var maxY = this.getMaxBlockY();
+    var maxZ = this.getMaxBlockZ();
+    for (var y = this.getMinBlockY(); y <= maxY; y ++)
+      for (var x = minX; x <= maxX; x ++)
+        for (var z = minZ; z <= maxZ; z ++)
+          action.accept(x, y, z);
+  }
+
+  // Return a lazy stream of the locations in the cuboid
   public Stream<Location> locationsStream()
-  {    
-    var min = this.getMin();
-    var max = this.getMax();
-    
-    Stream.Builder<Location> builder = Stream.builder();
-    for (var y = min.getBlockY(); y <= max.getBlockY(); y ++)
-      for (var x = min.getBlockX(); x <= max.getBlockX(); x ++)
-        for (var z = min.getBlockZ(); z <= max.getBlockZ(); z ++)
-          builder.accept(new Location(this.world, x, y, z));
-    return builder.build();
+  {
+    return this.blockPositionsStream((x, y, z) -> new Location(this.world, x, y, z));
   }
   
   // Return a collection of the locations in the cuboid
@@ -95,11 +148,10 @@ public final class Cuboid
       .collect(Collectors.toCollection(ArrayList::new));
   }
   
-  // Return a stream of the blocks in the cuboid
+  // Return a lazy stream of the blocks in the cuboid
   public Stream<Block> blocksStream()
   {    
-    return this.locationsStream()
-      .map(l -> l.getBlock());
+    return this.blockPositionsStream((x, y, z) -> this.world.getBlockAt(x, y, z));
   }
   
   // Return a collection of the blocks in the cuboid
@@ -149,10 +201,7 @@ public final class Cuboid
     if (loc == null)
       throw new NullPointerException("loc must not be null");
     
-    return this.findEntities(predicate).stream()
-      .sorted(compareEntityDistanceTo(loc))
-      .findFirst()
-      .orElse(null);
+    return findNearest(loc, this.findEntities(predicate));
   }
   
   // Find an entity with the specified class in the cuboid that is nearest to the specified location
@@ -161,10 +210,7 @@ public final class Cuboid
     if (loc == null)
       throw new NullPointerException("loc must not be null");
     
-    return this.findEntities(cls).stream()
-      .sorted(compareEntityDistanceTo(loc))
-      .findFirst()
-      .orElse(null);
+    return findNearest(loc, this.findEntities(cls));
   }
   
   // Find an entity with the specified class and that matches the specified predicate in the cuboid that is nearest to the specified location
@@ -173,10 +219,40 @@ public final class Cuboid
     if (loc == null)
       throw new NullPointerException("loc must not be null");
     
-    return this.findEntities(cls, predicate).stream()
-      .sorted(compareEntityDistanceTo(loc))
-      .findFirst()
-      .orElse(null);
+    return findNearest(loc, this.findEntities(cls, predicate));
+  }
+  
+  // Find at most the specified number of entities that match the specified predicate in the cuboid that are nearest to the specified location, ordered from nearest to furthest
+  public List<Entity> findNearestEntities(Location loc, Predicate<Entity> predicate, int k)
+  {
+    if (loc == null)
+      throw new NullPointerException("loc must not be null");
+    if (k < 0)
+      throw new IllegalArgumentException("k must not be smaller than zero");
+    
+    return findNearest(loc, this.findEntities(predicate), k);
+  }
+  
+  // Find at most the specified number of entities with the specified class in the cuboid that are nearest to the specified location, ordered from nearest to furthest
+  public <T extends Entity> List<T> findNearestEntities(Location loc, Class<T> cls, int k)
+  {
+    if (loc == null)
+      throw new NullPointerException("loc must not be null");
+    if (k < 0)
+      throw new IllegalArgumentException("k must not be smaller than zero");
+    
+    return findNearest(loc, this.findEntities(cls), k);
+  }
+  
+  // Find at most the specified number of entities with the specified class and that match the specified predicate in the cuboid that are nearest to the specified location, ordered from nearest to furthest
+  public <T extends Entity> List<T> findNearestEntities(Location loc, Class<T> cls, Predicate<T> predicate, int k)
+  {
+    if (loc == null)
+      throw new NullPointerException("loc must not be null");
+    if (k < 0)
+      throw new IllegalArgumentException("k must not be smaller than zero");
+    
+    return findNearest(loc, this.findEntities(cls, predicate), k);
   }
   
   // Find an entity that matches the specified predicate in the cuboid that is nearest to the center
@@ -197,6 +273,24 @@ public final class Cuboid
     return this.findNearestEntity(this.getCenter(), cls, predicate);
   }
   
+  // Find at most the specified number of entities that match the specified predicate in the cuboid that are nearest to the center, ordered from nearest to furthest
+  public List<Entity> findNearestEntitiesToCenter(Predicate<Entity> predicate, int k)
+  {
+    return this.findNearestEntities(this.getCenter(), predicate, k);
+  }
+  
+  // Find at most the specified number of entities with the specified class in the cuboid that are nearest to the center, ordered from nearest to furthest
+  public <T extends Entity> List<T> findNearestEntitiesToCenter(Class<T> cls, int k)
+  {
+    return this.findNearestEntities(this.getCenter(), cls, k);
+  }
+  
+  // Find at most the specified number of entities with the specified class and that match the specified predicate in the cuboid that are nearest to the center, ordered from nearest to furthest
+  public <T extends Entity> List<T> findNearestEntitiesToCenter(Class<T> cls, Predicate<T> predicate, int k)
+  {
+    return this.findNearestEntities(this.getCenter(), cls, predicate, k);
+  }
+  
   
   // Find all blocks with the specified material in the cuboid
   public Collection<Block> findBlocks(Material material)
@@ -207,24 +301,57 @@ public final class Cuboid
       throw new IllegalArgumentException("material must be a block material");
     
     var blockList = new ArrayList<Block>();
-    for (var block : this.blocks())
-    {
-      if (block.getType() == material)
-        blockList.add(block);
-    }
+    this.forEachBlockPosition((x, y, z) -> {
+      if (this.world.getType(x, y, z) == material)
+        blockList.add(this.world.getBlockAt(x, y, z));
+    });
     return blockList;
   }
   
-  // Find a block with the specified material in the cuboid that is nearest to the specified location
+  // Find a block with the specified material in the cuboid that is nearest to the specified location, searching in shells outwards from the location
   public Block findNearestBlock(Material material, Location loc)
   {
+    if (material == null)
+      throw new NullPointerException("material must not be null");
+    if (!material.isBlock())
+      throw new IllegalArgumentException("material must be a block material");
+    
+    return this.findNearestBlock(m -> m == material, loc);
+  }
+  
+  // Find a block with one of the specified materials in the cuboid that is nearest to the specified location, searching in shells outwards from the location
+  public Block findNearestBlock(Set<Material> materials, Location loc)
+  {
+    if (materials == null)
+      throw new NullPointerException("materials must not be null");
+    
+    var materialSet = materials.isEmpty() ? EnumSet.noneOf(Material.class) : EnumSet.copyOf(materials);
+    return this.findNearestBlock(materialSet::contains, loc);
+  }
+  
+  // Find a block whose material matches the specified filter in the cuboid that is nearest to the specified location, searching in shells outwards from the location
+  public Block findNearestBlock(Predicate<Material> filter, Location loc)
+  {
+    if (filter == null)
+      throw new NullPointerException("filter must not be null");
     if (loc == null)
       throw new NullPointerException("loc must not be null");
     
-    return this.findBlocks(material).stream()
-      .sorted(compareBlockDistanceTo(loc))
-      .findFirst()
-      .orElse(null);
+    var nearest = BlockShells.findNearest(this.getMinBlockX(), this.getMinBlockY(), this.getMinBlockZ(), this.getMaxBlockX(), this.getMaxBlockY(), this.getMaxBlockZ(), loc, this.world::getType, filter);
+    return nearest != null ? this.world.getBlockAt(nearest[0], nearest[1], nearest[2]) : null;
+  }
+  
+  // Find the block for each of the specified materials in the cuboid that is nearest to the specified location in a single search, omitting materials for which there is no block in the cuboid
+  public Map<Material, Block> findNearestBlocks(Set<Material> materials, Location loc)
+  {
+    if (materials == null)
+      throw new NullPointerException("materials must not be null");
+    if (loc == null)
+      throw new NullPointerException("loc must not be null");
+    
+    var materialSet = materials.isEmpty() ? EnumSet.noneOf(Material.class) : EnumSet.copyOf(materials);
+    return BlockShells.findNearestPerMaterial(this.getMinBlockX(), this.getMinBlockY(), this.getMinBlockZ(), this.getMaxBlockX(), this.getMaxBlockY(), this.getMaxBlockZ(), loc, this.world::getType, materialSet).entrySet().stream()
+      .collect(Collectors.toMap(e -> e.getKey(), e -> this.world.getBlockAt(e.getValue()[0], e.getValue()[1], e.getValue()[2]), (a, b) -> a, () -> new EnumMap<>(Material.class)));
   }
   
   // Find a block with the specified material in the cuboid that is nearest to the center of the cuboid
@@ -233,6 +360,109 @@ public final class Cuboid
     return this.findNearestBlock(material, this.getCenter());
   }
   
+  // Find a block with one of the specified materials in the cuboid that is nearest to the center of the cuboid
+  public Block findNearestBlockToCenter(Set<Material> materials)
+  {
+    return this.findNearestBlock(materials, this.getCenter());
+  }
+  
+  // Find a block whose material matches the specified filter in the cuboid that is nearest to the center of the cuboid
+  public Block findNearestBlockToCenter(Predicate<Material> filter)
+  {
+    return this.findNearestBlock(filter, this.getCenter());
+  }
+  
+  
+  // Capture snapshots of the loaded chunks that the cuboid touches, which must be called on the main thread and does not load unloaded chunks
+  public CuboidSnapshot snapshot()
+  {
+    if (!Bukkit.isPrimaryThread())
+      throw new IllegalStateException("Chunk snapshots can only be captured on the main thread");
+
+    return new CuboidSnapshot(this.world, this.getMinBlockX(), this.getMinBlockY(), this.getMinBlockZ(), this.getMaxBlockX(), this.getMaxBlockY(), this.getMaxBlockZ());
+  }
+
+  // Capture snapshots of the loaded chunks that the cuboid touches on the main thread, scheduling the capture using the specified plugin if called from another thread
+  public CompletableFuture<CuboidSnapshot> snapshotAsync(Plugin plugin)
+  {
+    if (Bukkit.isPrimaryThread())
+      return CompletableFuture.completedFuture(this.snapshot());
+    if (plugin == null)
+      throw new NullPointerException("plugin must not be null");
+
+    return CompletableFuture.supplyAsync(this::snapshot, Bukkit.getScheduler().getMainThreadExecutor(plugin));
+  }
+
+  // Find all blocks with the specified material in the loaded chunks of the cuboid, testing the materials on a worker pool
+  public CompletableFuture<Collection<Block>> findBlocksAsync(Material material, Plugin plugin)
+  {
+    if (material == null)
+      throw new NullPointerException("material must not be null");
+    if (!material.isBlock())
+      throw new IllegalArgumentException("material must be a block material");
+
+    return this.snapshotAsync(plugin)
+      .thenApplyAsync(snapshot -> snapshot.findBlocks(material));
+  }
+
+  // Find a block with the specified material in the loaded chunks of the cuboid that is nearest to the specified location, testing the materials on a worker pool
+  public CompletableFuture<Block> findNearestBlockAsync(Material material, Location loc, Plugin plugin)
+  {
+    if (material == null)
+      throw new NullPointerException("material must not be null");
+    if (!material.isBlock())
+      throw new IllegalArgumentException("material must be a block material");
+    if (loc == null)
+      throw new NullPointerException("loc must not be null");
+
+    return this.snapshotAsync(plugin)
+      .thenApplyAsync(snapshot -> snapshot.findNearestBlock(material, loc));
+  }
+
+  // Find a block with the specified material in the loaded chunks of the cuboid that is nearest to the center of the cuboid, testing the materials on a worker pool
+  public CompletableFuture<Block> findNearestBlockToCenterAsync(Material material, Plugin plugin)
+  {
+    return this.findNearestBlockAsync(material, this.getCenter(), plugin);
+  }
+  
+  
+  // Return the entity in the specified collection that is nearest to the specified location, computing the squared distance once per entity
+  private static <T extends Entity> T findNearest(Location loc, Collection<T> entities)
+  {
+    var entityLocation = new Location(null, 0, 0, 0);
+    T nearest = null;
+    var nearestDistance = Double.POSITIVE_INFINITY;
+    for (var entity : entities)
+    {
+      var distance = distanceSquared(entity.getLocation(entityLocation), loc);
+      if (distance < nearestDistance)
+      {
+        nearest = entity;
+        nearestDistance = distance;
+      }
+    }
+    return nearest;
+  }
+  
+  // Return at most the specified number of entities in the specified collection that are nearest to the specified location, ordered from nearest to furthest, computing the squared distance once per entity
+  private static <T extends Entity> List<T> findNearest(Location loc, Collection<T> entities, int k)
+  {
+    var entityLocation = new Location(null, 0, 0, 0);
+    var heap = new BoundedHeap<T>(k);
+    for (var entity : entities)
+      heap.offer(entity, distanceSquared(entity.getLocation(entityLocation), loc));
+    return heap.drain();
+  }
+  
+  // Return the squared distance between the coordinates of two locations
+  private static double distanceSquared(Location a, Location b)
+  {
+    var dx = a.getX() - b.getX();
+    var dy = a.getY() - b.getY();
+    var dz = a.getZ() - b.getZ();
+    return dx * dx + dy * dy + dz * dz;
+  }
+  
   
   // Return a comparator that compares the distances of two locations to the specified location
   public static Comparator<Location> compareDistanceTo(Location loc)
@@ -0,0 +1,166 @@
+package dev.danae.common.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+
+public final class CuboidSnapshot
+{
+  // The number of bits of a block coordinate within a chunk
+  private static final int CHUNK_SHIFT = 4;
+
+
+  // The world of the snapshot
+  private final World world;
+
+  // The inclusive block boundaries of the snapshot, where the y boundaries are clamped to the height of the world
+  private final int minX;
+  private final int minY;
+  private final int minZ;
+  private final int maxX;
+  private final int maxY;
+  private final int maxZ;
+
+  // The minimal height of the world, which is needed to index the sections of the chunks
+  private final int worldMinHeight;
+
+  // The minimal chunk coordinates and the number of chunks along the x and z axes of the snapshot
+  private final int minChunkX;
+  private final int minChunkZ;
+  private final int chunksX;
+  private final int chunksZ;
+
+  // The snapshots of the chunks ordered by x and z, or null for chunks that were not loaded when the snapshot was captured
+  private final ChunkSnapshot[] chunks;
+
+
+  // Constructor that captures the snapshots of the loaded chunks between the specified inclusive block boundaries, which must be called on the main thread
+  CuboidSnapshot(World world, int minX, int minY, int minZ, int maxX, int maxY, int maxZ)
+  {
+    this.world = world;
+    this.worldMinHeight = world.getMinHeight();
+    this.minX = minX;
+    this.minY = Math.max(minY, this.worldMinHeight);
+    this.minZ = minZ;
+    this.maxX = maxX;
+    this.maxY = Math.min(maxY, world.getMaxHeight() - 1);
+    this.maxZ = maxZ;
+
+    this.minChunkX = minX >> CHUNK_SHIFT;
+    this.minChunkZ = minZ >> CHUNK_SHIFT;
+    this.chunksX = maxX >= minX ? (maxX >> CHUNK_SHIFT) - this.minChunkX + 1 : 0;
+    this.chunksZ = maxZ >= minZ ? (maxZ >> CHUNK_SHIFT) - this.minChunkZ + 1 : 0;
+
+    // Capture the loaded chunks without loading unloaded chunks
+    this.chunks = new ChunkSnapshot[this.chunksX * this.chunksZ];
+    for (var i = 0; i < this.chunks.length; i ++)
+    {
+      var chunkX = this.minChunkX + i / this.chunksZ;
+      var chunkZ = this.minChunkZ + i % this.chunksZ;
+      if (world.isChunkLoaded(chunkX, chunkZ))
+        this.chunks[i] = world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false);
+    }
+  }
+
+
+  // Return the world of the snapshot
+  public World getWorld()
+  {
+    return this.world;
+  }
+
+  // Return the material of the block at the specified position, or null if the position is outside the snapshot or in a chunk that was not loaded
+  public Material getType(int x, int y, int z)
+  {
+    if (x < this.minX || x > this.maxX || y < this.minY || y > this.maxY || z < this.minZ || z > this.maxZ)
+      return null;
+
+    var chunk = this.chunks[((x >> CHUNK_SHIFT) - this.minChunkX) * this.chunksZ + (z >> CHUNK_SHIFT) - this.minChunkZ];
+    return chunk != null ? chunk.getBlockType(x & 15, y, z & 15) : null;
+  }
+
+
+  // Perform the specified action for each block position with the specified material in the loaded chunks of the snapshot, which can be called from any thread
+  public void forEachBlockPosition(Material material, IntTriConsumer action)
+  {
+    if (material == null)
+      throw new NullPointerException("material must not be null");
+    if (action == null)
+      throw new NullPointerException("action must not be null");
+
+    for (var i = 0; i < this.chunks.length; i ++)
+      this.forEachBlockPositionInChunk(i, material, action);
+  }
+
+  // Find all blocks with the specified material in the loaded chunks of the snapshot, testing the chunks in parallel, which can be called from any thread
+  public Collection<Block> findBlocks(Material material)
+  {
+    if (material == null)
+      throw new NullPointerException("material must not be null");
+
+    return IntStream.range(0, this.chunks.length)
+      .parallel()
+      .mapToObj(i -> {
+        var blocks = new ArrayList<Block>();
+        this.forEachBlockPositionInChunk(i, material, (x, y, z) -> blocks.add(this.world.getBlockAt(x, y, z)));
+        return blocks;
+      })
+      .flatMap(List::stream)
+      .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+  }
+
+  // Find a block with the specified material in the loaded chunks of the snapshot that is nearest to the specified location, searching in shells outwards from the location, which can be called from any thread
+  public Block findNearestBlock(Material material, Location loc)
+  {
+    if (material == null)
+      throw new NullPointerException("material must not be null");
+    if (loc == null)
+      throw new NullPointerException("loc must not be null");
+
+    var nearest = BlockShells.findNearest(this.minX, this.minY, this.minZ, this.maxX, this.maxY, this.maxZ, loc, this::getType, m -> m == material);
+    return nearest != null ? this.world.getBlockAt(nearest[0], nearest[1], nearest[2]) : null;
+  }
+
+
+  // Perform the specified action for each block position with the specified material in the chunk with the specified index, skipping empty sections if the material is not air
+  private void forEachBlockPositionInChunk(int index, Material material, IntTriConsumer action)
+  {
+    var chunk = this.chunks[index];
+    if (chunk == null)
+      return;
+
+    var chunkX = this.minChunkX + index / this.chunksZ;
+    var chunkZ = this.minChunkZ + index % this.chunksZ;
+    var minX = Math.max(this.minX, chunkX << CHUNK_SHIFT);
+    var maxX = Math.min(this.maxX, (chunkX << CHUNK_SHIFT) + 15);
+    var minZ = Math.max(this.minZ, chunkZ << CHUNK_SHIFT);
+    var maxZ = Math.min(this.maxZ, (chunkZ << CHUNK_SHIFT) + 15);
+    var skipEmptySections = !material.isAir();
+
+    for (var y = this.minY; y <= this.maxY; y ++)
+    {
+      // Skip the rest of the section if it only contains air
+      if (skipEmptySections && chunk.isSectionEmpty((y - this.worldMinHeight) >> CHUNK_SHIFT))
+      {
+        y |= 15;
+        continue;
+      }
+
+      for (var x = minX; x <= maxX; x ++)
+      {
+        for (var z = minZ; z <= maxZ; z ++)
+        {
+          if (chunk.getBlockType(x & 15, y, z & 15) == material)
+            action.accept(x, y, z);
+        }
+      }
+    }
+  }
+}
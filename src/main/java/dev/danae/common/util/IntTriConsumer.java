@@ -0,0 +1,9 @@
+package dev.danae.common.util;
+
+
+@FunctionalInterface
+public interface IntTriConsumer
+{
+  // Perform the operation on the specified coordinates
+  public void accept(int x, int y, int z);
+}
@@ -0,0 +1,9 @@
+package dev.danae.common.util;
+
+
+@FunctionalInterface
+public interface IntTriFunction<R>
+{
+  // Apply the function to the specified coordinates
+  public R apply(int x, int y, int z);
+}
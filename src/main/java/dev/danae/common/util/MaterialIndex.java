@@ -0,0 +1,526 @@
+package dev.danae.common.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.PistonMoveReaction;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockGrowEvent;
+import org.bukkit.event.block.BlockMultiPlaceEvent;
+import org.bukkit.event.block.BlockPistonEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.block.LeavesDecayEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.plugin.Plugin;
+
+
+public final class MaterialIndex implements Listener
+{
+  // The number of bits of a block coordinate within a chunk
+  private static final int CHUNK_SHIFT = 4;
+
+
+  // Class that defines the indexed blocks of a chunk
+  private static final class ChunkEntry
+  {
+    // The materials of the indexed blocks in the chunk, keyed by their packed position within the chunk
+    private final Map<Integer, Material> blocks = new ConcurrentHashMap<>();
+
+    // The packed positions that were changed by events while the chunk was being scanned, or null if the scan has completed, which is only accessed on the main thread
+    private Set<Integer> pendingPositions = new HashSet<>();
+  }
+
+
+  // The materials that are indexed
+  private final Set<Material> materials;
+
+  // The indexed chunks of each world, keyed by the identifier of the world and the packed chunk coordinates
+  private final Map<UUID, Map<Long, ChunkEntry>> worlds = new ConcurrentHashMap<>();
+
+  // The plugin that the index is registered for, or null if the index has not been registered yet
+  private Plugin plugin = null;
+
+
+  // Constructor
+  public MaterialIndex(Collection<Material> materials)
+  {
+    if (materials == null)
+      throw new NullPointerException("materials must not be null");
+    if (materials.isEmpty())
+      throw new IllegalArgumentException("materials must not be empty");
+    if (!materials.stream().allMatch(material -> material.isBlock()))
+      throw new IllegalArgumentException("materials must only contain block materials");
+
+    this.materials = Collections.unmodifiableSet(EnumSet.copyOf(materials));
+  }
+  public MaterialIndex(Material... materials)
+  {
+    this(Arrays.asList(materials));
+  }
+
+
+  // Return the materials that are indexed
+  public Set<Material> getMaterials()
+  {
+    return this.materials;
+  }
+
+  // Return if the specified material is indexed
+  public boolean isIndexed(Material material)
+  {
+    return this.materials.contains(material);
+  }
+
+  // Return the number of indexed blocks
+  public int size()
+  {
+    return this.worlds.values().stream()
+      .flatMap(chunks -> chunks.values().stream())
+      .mapToInt(entry -> entry.blocks.size())
+      .sum();
+  }
+
+  // Invalidate all indexed chunks and index the chunks that are loaded again if the index is registered, which must be called on the main thread
+  public void invalidate()
+  {
+    this.worlds.clear();
+    if (this.plugin != null)
+      this.indexLoadedChunks();
+  }
+
+
+  // Find an indexed block with the specified material within the specified radius around the specified location that is nearest to the location, which can be called from any thread
+  public Block findNearestBlock(Material material, Location loc, int radius)
+  {
+    if (material == null)
+      throw new NullPointerException("material must not be null");
+    if (!this.isIndexed(material))
+      throw new IllegalArgumentException(String.format("material %s is not indexed", material));
+
+    return this.findNearestBlock(m -> m == material, loc, radius);
+  }
+
+  // Find an indexed block with the specified material in the specified cuboid that is nearest to the specified location, which can be called from any thread
+  public Block findNearestBlock(Material material, Cuboid cuboid, Location loc)
+  {
+    if (material == null)
+      throw new NullPointerException("material must not be null");
+    if (!this.isIndexed(material))
+      throw new IllegalArgumentException(String.format("material %s is not indexed", material));
+
+    return this.findNearestBlock(m -> m == material, cuboid, loc);
+  }
+
+  // Find an indexed block whose material matches the specified filter within the specified radius around the specified location that is nearest to the location, which can be called from any thread and verifies the type of the block on the main thread, correcting blocks that were changed without an event before searching again
+  public Block findNearestBlock(Predicate<Material> filter, Location loc, int radius)
+  {
+    if (filter == null)
+      throw new NullPointerException("filter must not be null");
+    if (loc == null)
+      throw new NullPointerException("loc must not be null");
+    if (radius < 0)
+      throw new IllegalArgumentException("radius must not be smaller than zero");
+
+    return this.findNearestBlock(filter, loc.getWorld(), loc.getBlockX() - radius, loc.getBlockY() - radius, loc.getBlockZ() - radius, loc.getBlockX() + radius, loc.getBlockY() + radius, loc.getBlockZ() + radius, loc);
+  }
+
+  // Find an indexed block whose material matches the specified filter in the specified cuboid that is nearest to the specified location, which searches the same inclusive block boundaries as the blocks of the cuboid and can be called from any thread
+  public Block findNearestBlock(Predicate<Material> filter, Cuboid cuboid, Location loc)
+  {
+    if (filter == null)
+      throw new NullPointerException("filter must not be null");
+    if (cuboid == null)
+      throw new NullPointerException("cuboid must not be null");
+    if (loc == null)
+      throw new NullPointerException("loc must not be null");
+
+    var min = cuboid.getMin();
+    var max = cuboid.getMax();
+    return this.findNearestBlock(filter, cuboid.getWorld(), min.getBlockX(), min.getBlockY(), min.getBlockZ(), max.getBlockX(), max.getBlockY(), max.getBlockZ(), loc);
+  }
+
+  // Find an indexed block whose material matches the specified filter in the specified world within the specified inclusive block boundaries that is nearest to the specified location, verifying the type of the block on the main thread and correcting blocks that were changed without an event before searching again
+  private Block findNearestBlock(Predicate<Material> filter, World world, int minX, int minY, int minZ, int maxX, int maxY, int maxZ, Location loc)
+  {
+    var chunks = this.worlds.get(world.getUID());
+    if (chunks == null)
+      return null;
+
+    while (true)
+    {
+      var nearest = this.findNearestPosition(chunks, filter, minX, minY, minZ, maxX, maxY, maxZ, loc);
+      if (nearest == null)
+        return null;
+
+      var block = world.getBlockAt(nearest[0], nearest[1], nearest[2]);
+      if (!Bukkit.isPrimaryThread())
+        return block;
+
+      var material = block.getType();
+      if (this.materials.contains(material) && filter.test(material))
+        return block;
+
+      this.update(world, nearest[0], nearest[1], nearest[2], material);
+    }
+  }
+
+  // Return the coordinates of the indexed block in the specified chunks whose material matches the specified filter within the specified inclusive block boundaries that is nearest to the specified location, or null if there is none
+  // The chunks are visited in rings, but the indexed blocks of each visited chunk are walked linearly, so a search costs time linear in the number of indexed blocks in the rings it visits
+  private int[] findNearestPosition(Map<Long, ChunkEntry> chunks, Predicate<Material> filter, int minX, int minY, int minZ, int maxX, int maxY, int maxZ, Location loc)
+  {
+    // Search the chunks in rings outwards from the chunk of the location until a ring cannot contain a nearer block
+    var centerChunkX = loc.getBlockX() >> CHUNK_SHIFT;
+    var centerChunkZ = loc.getBlockZ() >> CHUNK_SHIFT;
+    var maxRing = Math.max(Math.max(centerChunkX - (minX >> CHUNK_SHIFT), (maxX >> CHUNK_SHIFT) - centerChunkX), Math.max(centerChunkZ - (minZ >> CHUNK_SHIFT), (maxZ >> CHUNK_SHIFT) - centerChunkZ));
+
+    var nearest = new int[3];
+    var nearestDistance = Double.POSITIVE_INFINITY;
+    for (var ring = 0; ring <= maxRing; ring ++)
+    {
+      var ringDistance = (double)(Math.max(0, ring - 1) << CHUNK_SHIFT);
+      if (ringDistance * ringDistance >= nearestDistance)
+        break;
+
+      for (var chunkX = centerChunkX - ring; chunkX <= centerChunkX + ring; chunkX ++)
+      {
+        var onXEdge = chunkX == centerChunkX - ring || chunkX == centerChunkX + ring;
+        for (var chunkZ = centerChunkZ - ring; chunkZ <= centerChunkZ + ring; chunkZ += onXEdge || ring == 0 ? 1 : 2 * ring)
+        {
+          var entry = chunks.get(chunkKey(chunkX, chunkZ));
+          if (entry == null)
+            continue;
+
+          for (var e : entry.blocks.entrySet())
+          {
+            var position = e.getKey();
+            var x = (chunkX << CHUNK_SHIFT) | ((position >> CHUNK_SHIFT) & 15);
+            var y = position >> (2 * CHUNK_SHIFT);
+            var z = (chunkZ << CHUNK_SHIFT) | (position & 15);
+            if (x < minX || x > maxX || y < minY || y > maxY || z < minZ || z > maxZ || !filter.test(e.getValue()))
+              continue;
+
+            var dx = x - loc.getX();
+            var dy = y - loc.getY();
+            var dz = z - loc.getZ();
+            var distance = dx * dx + dy * dy + dz * dz;
+            if (distance < nearestDistance)
+            {
+              nearestDistance = distance;
+              nearest[0] = x;
+              nearest[1] = y;
+              nearest[2] = z;
+            }
+          }
+        }
+      }
+    }
+    return nearestDistance < Double.POSITIVE_INFINITY ? nearest : null;
+  }
+
+
+  // Register the index as a listener for the specified plugin and index the chunks that are already loaded
+  public void publishEvents(Plugin plugin)
+  {
+    if (plugin == null)
+      throw new NullPointerException("plugin must not be null");
+
+    this.plugin = plugin;
+    Bukkit.getPluginManager().registerEvents(this, plugin);
+    this.indexLoadedChunks();
+  }
+
+  // Event handler for when a chunk is loaded
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onChunkLoad(ChunkLoadEvent event)
+  {
+    this.indexChunk(event.getChunk());
+  }
+
+  // Event handler for when a chunk is unloaded
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onChunkUnload(ChunkUnloadEvent event)
+  {
+    var chunk = event.getChunk();
+    var chunks = this.worlds.get(chunk.getWorld().getUID());
+    if (chunks != null)
+      chunks.remove(chunkKey(chunk.getX(), chunk.getZ()));
+  }
+
+  // Event handler for when a world is unloaded
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onWorldUnload(WorldUnloadEvent event)
+  {
+    this.worlds.remove(event.getWorld().getUID());
+  }
+
+  // Event handler for when a block is placed, which includes the blocks of a multi-block placement
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockPlace(BlockPlaceEvent event)
+  {
+    if (event instanceof BlockMultiPlaceEvent multiPlaceEvent)
+    {
+      for (var state : multiPlaceEvent.getReplacedBlockStates())
+        this.update(state.getBlock());
+    }
+    else
+    {
+      this.update(event.getBlockPlaced());
+    }
+  }
+
+  // Event handler for when a block is broken
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockBreak(BlockBreakEvent event)
+  {
+    var block = event.getBlock();
+    this.update(block.getWorld(), block.getX(), block.getY(), block.getZ(), null);
+  }
+
+  // Event handler for when a block explodes
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockExplode(BlockExplodeEvent event)
+  {
+    for (var block : event.blockList())
+      this.update(block.getWorld(), block.getX(), block.getY(), block.getZ(), null);
+  }
+
+  // Event handler for when an entity explodes
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onEntityExplode(EntityExplodeEvent event)
+  {
+    for (var block : event.blockList())
+      this.update(block.getWorld(), block.getX(), block.getY(), block.getZ(), null);
+  }
+
+  // Event handler for when a block burns away
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockBurn(BlockBurnEvent event)
+  {
+    var block = event.getBlock();
+    this.update(block.getWorld(), block.getX(), block.getY(), block.getZ(), null);
+  }
+
+  // Event handler for when a block fades, melts or dries
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockFade(BlockFadeEvent event)
+  {
+    this.update(event.getNewState());
+  }
+
+  // Event handler for when a block grows, forms or spreads
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockGrow(BlockGrowEvent event)
+  {
+    this.update(event.getNewState());
+  }
+
+  // Event handler for when leaves decay
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onLeavesDecay(LeavesDecayEvent event)
+  {
+    var block = event.getBlock();
+    this.update(block.getWorld(), block.getX(), block.getY(), block.getZ(), null);
+  }
+
+  // Event handler for when a liquid flows or a dragon egg teleports into a block
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockFromTo(BlockFromToEvent event)
+  {
+    var source = event.getBlock();
+    var block = event.getToBlock();
+    this.update(block.getWorld(), block.getX(), block.getY(), block.getZ(), source.getType());
+    if (!source.isLiquid())
+      this.update(source.getWorld(), source.getX(), source.getY(), source.getZ(), null);
+  }
+
+  // Event handler for when an entity changes a block
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onEntityChangeBlock(EntityChangeBlockEvent event)
+  {
+    var block = event.getBlock();
+    this.update(block.getWorld(), block.getX(), block.getY(), block.getZ(), event.getTo());
+  }
+
+  // Event handler for when a piston extends
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockPistonExtend(BlockPistonExtendEvent event)
+  {
+    this.move(event, event.getBlocks());
+  }
+
+  // Event handler for when a piston retracts
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onBlockPistonRetract(BlockPistonRetractEvent event)
+  {
+    this.move(event, event.getBlocks());
+  }
+
+
+  // Index the chunks that are loaded in all worlds
+  private void indexLoadedChunks()
+  {
+    for (var world : Bukkit.getWorlds())
+    {
+      for (var chunk : world.getLoadedChunks())
+        this.indexChunk(chunk);
+    }
+  }
+
+  // Index the specified chunk by scanning a snapshot of it off the main thread
+  private void indexChunk(Chunk chunk)
+  {
+    var world = chunk.getWorld();
+    var entry = new ChunkEntry();
+    this.worlds.computeIfAbsent(world.getUID(), id -> new ConcurrentHashMap<>()).put(chunkKey(chunk.getX(), chunk.getZ()), entry);
+
+    var snapshot = chunk.getChunkSnapshot(false, false, false);
+    var minHeight = world.getMinHeight();
+    var maxHeight = world.getMaxHeight();
+    CompletableFuture.supplyAsync(() -> this.scan(snapshot, minHeight, maxHeight))
+      .thenAcceptAsync(blocks -> this.merge(entry, blocks), Bukkit.getScheduler().getMainThreadExecutor(this.plugin))
+      .exceptionally(ex -> {
+        this.plugin.getLogger().log(Level.SEVERE, String.format("Unhandled exception indexing chunk %d,%d of world %s", chunk.getX(), chunk.getZ(), world.getName()), ex);
+        return null;
+      });
+  }
+
+  // Return the indexed blocks in the specified chunk snapshot, skipping sections that only contain air
+  private Map<Integer, Material> scan(ChunkSnapshot snapshot, int minHeight, int maxHeight)
+  {
+    var blocks = new HashMap<Integer, Material>();
+    for (var y = minHeight; y < maxHeight; y ++)
+    {
+      // Skip the rest of the section if it only contains air
+      if (snapshot.isSectionEmpty((y - minHeight) >> CHUNK_SHIFT))
+      {
+        y |= 15;
+        continue;
+      }
+
+      for (var x = 0; x < 16; x ++)
+      {
+        for (var z = 0; z < 16; z ++)
+        {
+          var material = snapshot.getBlockType(x, y, z);
+          if (this.materials.contains(material))
+            blocks.put(packPosition(x, y, z), material);
+        }
+      }
+    }
+    return blocks;
+  }
+
+  // Merge the scanned blocks into the specified chunk entry on the main thread, keeping the positions that were changed by events during the scan
+  private void merge(ChunkEntry entry, Map<Integer, Material> blocks)
+  {
+    for (var e : blocks.entrySet())
+    {
+      if (!entry.pendingPositions.contains(e.getKey()))
+        entry.blocks.put(e.getKey(), e.getValue());
+    }
+    entry.pendingPositions = null;
+  }
+
+  // Update the indexed material of the block at the specified position, removing it from the index if the material is null or not indexed
+  private void update(World world, int x, int y, int z, Material material)
+  {
+    var chunks = this.worlds.get(world.getUID());
+    var entry = chunks != null ? chunks.get(chunkKey(x >> CHUNK_SHIFT, z >> CHUNK_SHIFT)) : null;
+    if (entry == null)
+      return;
+
+    var position = packPosition(x, y, z);
+    if (material != null && this.materials.contains(material))
+      entry.blocks.put(position, material);
+    else
+      entry.blocks.remove(position);
+
+    if (entry.pendingPositions != null)
+      entry.pendingPositions.add(position);
+  }
+
+  // Update the indexed material of the specified block to its current type
+  private void update(Block block)
+  {
+    this.update(block.getWorld(), block.getX(), block.getY(), block.getZ(), block.getType());
+  }
+
+  // Update the indexed material of the block of the specified state to the type of the state
+  private void update(BlockState state)
+  {
+    this.update(state.getWorld(), state.getX(), state.getY(), state.getZ(), state.getType());
+  }
+
+  // Move the indexed materials of the specified blocks in the direction of the specified piston event, removing the blocks that are broken by the piston
+  private void move(BlockPistonEvent event, Iterable<Block> blocks)
+  {
+    var direction = event.getDirection();
+    var moved = new ArrayList<Block>();
+    for (var block : blocks)
+    {
+      if (this.materials.contains(block.getType()))
+        moved.add(block);
+    }
+    if (moved.isEmpty())
+      return;
+
+    // Remove all blocks at their old positions before adding them at their new positions, since the blocks can move into each other's positions
+    var movedMaterials = new ArrayList<Material>(moved.size());
+    for (var block : moved)
+    {
+      movedMaterials.add(block.getPistonMoveReaction() != PistonMoveReaction.BREAK ? block.getType() : null);
+      this.update(block.getWorld(), block.getX(), block.getY(), block.getZ(), null);
+    }
+    for (var i = 0; i < moved.size(); i ++)
+    {
+      var block = moved.get(i);
+      if (movedMaterials.get(i) != null)
+        this.update(block.getWorld(), block.getX() + direction.getModX(), block.getY() + direction.getModY(), block.getZ() + direction.getModZ(), movedMaterials.get(i));
+    }
+  }
+
+
+  // Return the packed coordinates of the specified chunk
+  private static long chunkKey(int chunkX, int chunkZ)
+  {
+    return ((long)chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+  }
+
+  // Return the packed position of the specified block coordinates within its chunk
+  private static int packPosition(int x, int y, int z)
+  {
+    return (y << (2 * CHUNK_SHIFT)) | ((x & 15) << CHUNK_SHIFT) | (z & 15);
+  }
+}